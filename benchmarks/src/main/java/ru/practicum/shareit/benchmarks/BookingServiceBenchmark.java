@@ -0,0 +1,50 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingFullDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookingServiceBenchmark {
+    // бронирования сохраняются далеко после сгенерированных, чтобы не пересекаться с подтверждёнными
+    private static final LocalDateTime SAVE_FROM = LocalDateTime.now().plusYears(50);
+
+    @Param({"ALL", "FUTURE", "WAITING"})
+    public String bookingState; // состояние бронирований для выборки владельца
+
+    @Benchmark
+    public Collection<BookingFullDto> findOwnerBookings(ShareItState state) {
+        return state.bookingService.findOwnerBookings(state.randomUserId(), bookingState, 0, 20);
+    }
+
+    @Benchmark
+    public BookingFullDto saveBooking(ShareItState state) {
+        int item = state.randomItemIndex();
+        long bookerId;
+        do {
+            bookerId = state.randomUserId();
+        } while (bookerId == state.itemOwnerId(item));
+        LocalDateTime start = SAVE_FROM.plusHours(ThreadLocalRandom.current().nextInt(100_000));
+        return state.bookingService.saveBooking(
+                new BookingDto(state.itemId(item), start, start.plusDays(1)), bookerId);
+    }
+}
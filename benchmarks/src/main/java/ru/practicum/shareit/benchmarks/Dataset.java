@@ -0,0 +1,129 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Заполняет базу пользователями, вещами, бронированиями, комментариями и запросами.
+ * Генератор детерминирован, поэтому прогоны с одинаковыми параметрами сравнимы между собой.
+ */
+class Dataset {
+    static final String[] WORDS = {
+            "дрель", "палатка", "лодка", "велосипед", "пила", "перфоратор", "удочка", "самокат",
+            "лестница", "проектор", "гитара", "рюкзак", "котелок", "спальник", "шуруповёрт", "фонарь"
+    };
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Random random = new Random(42);
+
+    private long[] userIds;
+    private long[] itemIds;
+    private long[] itemOwnerIds;
+
+    Dataset(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    Dataset seed(int users, int itemsPerUser, int bookingsPerItem, int requestsPerUser) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            rows.add(new Object[]{"user " + i, "user" + i + "@shareit.ru"});
+        }
+        insert("insert into users (id, name, email) values (nextval('seq_users'), ?, ?)", rows);
+        userIds = ids("select id from users order by id");
+
+        for (long userId : userIds) {
+            for (int i = 0; i < requestsPerUser; i++) {
+                rows.add(new Object[]{"Нужен " + word() + ", " + word() + " тоже подойдёт", userId,
+                        Timestamp.valueOf(now.minusMinutes(random.nextInt(100_000)))});
+            }
+        }
+        insert("insert into requests (id, description, requestor_id, created) "
+                + "values (nextval('seq_requests'), ?, ?, ?)", rows);
+        long[] requestIds = ids("select id from requests order by id");
+
+        for (long userId : userIds) {
+            for (int i = 0; i < itemsPerUser; i++) {
+                Long requestId = requestIds.length > 0 && random.nextInt(3) == 0
+                        ? requestIds[random.nextInt(requestIds.length)] : null;
+                rows.add(new Object[]{capitalize(word()) + " " + i, "Хороший " + word() + " для " + word(),
+                        random.nextInt(10) > 0, userId, requestId});
+            }
+        }
+        insert("insert into items (id, name, description, is_available, owner_id, request_id) "
+                + "values (nextval('seq_items'), ?, ?, ?, ?, ?)", rows);
+        List<long[]> items = jdbcTemplate.query("select id, owner_id from items where is_available order by id",
+                (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2)});
+        itemIds = items.stream().mapToLong(item -> item[0]).toArray();
+        itemOwnerIds = items.stream().mapToLong(item -> item[1]).toArray();
+
+        String[] statuses = {"APPROVED", "WAITING", "REJECTED"};
+        for (int i = 0; i < itemIds.length; i++) {
+            LocalDateTime start = now.minusDays(2L * bookingsPerItem);
+            for (int j = 0; j < bookingsPerItem; j++) {
+                LocalDateTime end = start.plusDays(1);
+                rows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(end), itemIds[i],
+                        booker(itemOwnerIds[i]), statuses[j % statuses.length]});
+                start = start.plusDays(4);
+            }
+        }
+        insert("insert into bookings (id, start_date, end_date, item_id, booker_id, status) "
+                + "values (nextval('seq_bookings'), ?, ?, ?, ?, ?)", rows);
+
+        for (int i = 0; i < itemIds.length; i += 2) {
+            rows.add(new Object[]{"Отличный " + word(), itemIds[i], booker(itemOwnerIds[i]),
+                    Timestamp.valueOf(now.minusDays(1))});
+        }
+        insert("insert into comments (id, text, item_id, author_id, created) "
+                + "values (nextval('seq_comments'), ?, ?, ?, ?)", rows);
+        return this;
+    }
+
+    long[] getUserIds() {
+        return userIds;
+    }
+
+    long[] getItemIds() {
+        return itemIds;
+    }
+
+    long[] getItemOwnerIds() {
+        return itemOwnerIds;
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        for (int from = 0; from < rows.size(); from += BATCH_SIZE) {
+            jdbcTemplate.batchUpdate(sql, rows.subList(from, Math.min(rows.size(), from + BATCH_SIZE)));
+        }
+        rows.clear();
+    }
+
+    private long[] ids(String sql) {
+        return jdbcTemplate.queryForList(sql, Long.class).stream().mapToLong(Long::longValue).toArray();
+    }
+
+    private long booker(long ownerId) {
+        long bookerId;
+        do {
+            bookerId = userIds[random.nextInt(userIds.length)];
+        } while (bookerId == ownerId && userIds.length > 1);
+        return bookerId;
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static String capitalize(String word) {
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+}
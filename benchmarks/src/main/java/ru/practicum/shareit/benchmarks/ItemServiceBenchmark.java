@@ -0,0 +1,40 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.shareit.item.dto.ItemFullDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemServiceBenchmark {
+
+    @Benchmark
+    public Collection<ItemFullDto> findUserItems(ShareItState state) {
+        return state.itemService.findUserItems(state.randomUserId(), 0, 20);
+    }
+
+    @Benchmark
+    public Collection<Item> searchItems(ShareItState state) {
+        return state.itemService.searchItems(state.randomWord(), null, null, 0, 20);
+    }
+
+    @Benchmark
+    public Collection<Item> searchFreeItems(ShareItState state) {
+        // окно пересекается с бронями набора данных, которые идут через каждые четыре дня
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        return state.itemService.searchItems(state.randomWord(), start, start.plusDays(2), 0, 20);
+    }
+}
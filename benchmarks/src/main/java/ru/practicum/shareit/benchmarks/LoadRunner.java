@@ -0,0 +1,128 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Нагрузочный прогон по HTTP для сравнения режимов выполнения шлюза и сервера. Заданное число клиентов
+ * без пауз повторяет GET-запрос: после прогрева учитываются запросы, начатые за время измерения,
+ * и выводятся пропускная способность и задержки. Чтобы увидеть разницу между пулом потоков Tomcat
+ * и виртуальными потоками, число клиентов должно превышать server.tomcat.threads.max (200):
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar ru.practicum.shareit.benchmarks.LoadRunner \
+ *      --url=http://localhost:8080/bookings/owner --user-id=1 --concurrency=1000 --warmup=10s --duration=30s
+ * </pre>
+ * и тот же прогон после перезапуска шлюза на Java 21 с --shareit-gateway.virtual-threads.enabled=true.
+ */
+public final class LoadRunner {
+    private static final int MAX_LATENCY_MILLIS = 10_000; // задержки больше учитываются в последнем интервале
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .build();
+    private final HttpRequest request;
+    private final AtomicLongArray latencies = new AtomicLongArray(MAX_LATENCY_MILLIS + 1); // по миллисекундам
+    private final LongAdder errors = new LongAdder();
+
+    private LoadRunner(HttpRequest request) {
+        this.request = request;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = parseOptions(args);
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(options.getOrDefault("url",
+                "http://localhost:8080/users")))
+                .header("Accept", "application/json")
+                .GET();
+        if (options.containsKey("user-id")) {
+            request.header("X-Sharer-User-Id", options.get("user-id"));
+        }
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        Duration warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "10s"));
+        Duration duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "30s"));
+
+        new LoadRunner(request.build()).run(concurrency, warmup, duration);
+    }
+
+    private void run(int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long measureTo = measureFrom + duration.toNanos();
+        CountDownLatch finished = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            send(measureFrom, measureTo, finished);
+        }
+        finished.await();
+        report(concurrency, duration);
+    }
+
+    private void send(long measureFrom, long measureTo, CountDownLatch finished) {
+        long start = System.nanoTime();
+        if (start >= measureTo) {
+            finished.countDown();
+            return;
+        }
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    if (start >= measureFrom) {
+                        record(start, response, error);
+                    }
+                    send(measureFrom, measureTo, finished);
+                });
+    }
+
+    private void record(long start, HttpResponse<?> response, Throwable error) {
+        if (error != null || response.statusCode() >= 400) {
+            errors.increment();
+            return;
+        }
+        long millis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+        latencies.incrementAndGet((int) Math.min(millis, MAX_LATENCY_MILLIS));
+    }
+
+    private void report(int concurrency, Duration duration) {
+        long total = 0;
+        for (int i = 0; i < latencies.length(); i++) {
+            total += latencies.get(i);
+        }
+        System.out.printf("%s, клиентов: %d, время измерения: %s%n", request.uri(), concurrency, duration);
+        System.out.printf("Успешных запросов: %d, ошибок: %d, пропускная способность: %.1f запросов/с%n",
+                total, errors.sum(), total * 1000.0 / duration.toMillis());
+        System.out.printf("Задержка, мс: p50=%d p90=%d p99=%d max=%d%n",
+                percentile(total, 0.5), percentile(total, 0.9), percentile(total, 0.99), percentile(total, 1.0));
+    }
+
+    private long percentile(long total, double fraction) {
+        long rank = (long) Math.ceil(total * fraction);
+        long seen = 0;
+        for (int i = 0; i < latencies.length(); i++) {
+            seen += latencies.get(i);
+            if (seen >= rank && seen > 0) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0) {
+                throw new IllegalArgumentException(String.format(
+                        "Параметр (%s) задан некорректно, ожидается --имя=значение", arg));
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,82 @@
+package ru.practicum.shareit.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.Banner;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.ShareItServer;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.item.ItemService;
+import ru.practicum.shareit.request.ItemRequestService;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Поднимает контекст сервера без веб-слоя поверх H2 (профиль ci) и заполняет базу
+ * набором данных заданного размера. Другую базу можно подключить системными свойствами
+ * spring.datasource.*, передав их в -jvmArgsAppend; база должна быть пустой.
+ */
+@State(Scope.Benchmark)
+public class ShareItState {
+    @Param("1000")
+    public int users; // количество пользователей
+    @Param("10")
+    public int itemsPerUser; // количество вещей у каждого пользователя
+    @Param("10")
+    public int bookingsPerItem; // количество бронирований каждой вещи
+    @Param("5")
+    public int requestsPerUser; // количество запросов каждого пользователя
+
+    private ConfigurableApplicationContext context;
+    private Dataset dataset;
+
+    BookingService bookingService;
+    ItemService itemService;
+    ItemRequestService itemRequestService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(ShareItServer.class)
+                .web(WebApplicationType.NONE)
+                .bannerMode(Banner.Mode.OFF)
+                .profiles("ci")
+                .run("--logging.level.root=WARN");
+        dataset = new Dataset(context.getBean(JdbcTemplate.class))
+                .seed(users, itemsPerUser, bookingsPerItem, requestsPerUser);
+        bookingService = context.getBean(BookingService.class);
+        itemService = context.getBean(ItemService.class);
+        itemRequestService = context.getBean(ItemRequestService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    long randomUserId() {
+        return dataset.getUserIds()[ThreadLocalRandom.current().nextInt(dataset.getUserIds().length)];
+    }
+
+    int randomItemIndex() {
+        return ThreadLocalRandom.current().nextInt(dataset.getItemIds().length);
+    }
+
+    long itemId(int index) {
+        return dataset.getItemIds()[index];
+    }
+
+    long itemOwnerId(int index) {
+        return dataset.getItemOwnerIds()[index];
+    }
+
+    String randomWord() {
+        return Dataset.WORDS[ThreadLocalRandom.current().nextInt(Dataset.WORDS.length)];
+    }
+}
@@ -2,25 +2,32 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exception.ValidationException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
 @Slf4j
 @Validated
 public class BookingController {
+    static final int MAX_BATCH_SIZE = 500; // наибольшее число заявок в одном пакете
+
     private final BookingClient bookingClient;
 
     @GetMapping
@@ -28,12 +35,13 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
         validatePage(from, size);
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @PostMapping
@@ -44,6 +52,14 @@ public class BookingController {
         return bookingClient.bookItem(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<Object> bookItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                            @RequestBody List<@Valid @NotNull BookItemRequestDto> requestDtos) {
+        log.info("Creating {} bookings, userId={}", requestDtos.size(), userId);
+        validateBatch(requestDtos);
+        return bookingClient.bookItems(userId, requestDtos);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBooking(@RequestHeader("X-Sharer-User-Id") long userId,
                                              @PathVariable Long bookingId) {
@@ -58,33 +74,78 @@ public class BookingController {
         return bookingClient.updateBooking(userId, bookingId, approved);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> updateBookings(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                 @RequestBody List<@NotNull BookingDecisionDto> decisions) {
+        log.info("Deciding {} bookings, userId={}", decisions.size(), userId);
+        validateDecisions(decisions);
+        return bookingClient.updateBookings(userId, decisions);
+    }
+
     @GetMapping("/owner")
     public ResponseEntity<Object> findOwnerBookings(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "state", defaultValue = "all") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
         validatePage(from, size);
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        return bookingClient.findOwnerBookings(userId, state, from, size);
+        return bookingClient.findOwnerBookings(userId, state, from, size, cursor);
     }
 
-    private void validateBooking(BookItemRequestDto bookingDto) {
+    static void validateBooking(BookItemRequestDto bookingDto) {
         if (bookingDto.getStart().isBefore(LocalDateTime.now())) {
             throw new ValidationException(String.format(
                     "Дата начала брони (%s) находится в прошлом", bookingDto.getStart()));
         } else if (bookingDto.getEnd().isBefore(LocalDateTime.now())) {
             throw new ValidationException(String.format(
                     "Дата окончания брони (%s) находится в прошлом", bookingDto.getEnd()));
-        } else if (bookingDto.getEnd().isBefore(bookingDto.getStart())) {
+        } else if (!bookingDto.getEnd().isAfter(bookingDto.getStart())) {
             throw new ValidationException(String.format(
-                    "Дата окончания брони (%s) раньше даты начала (%s)",
+                    "Дата окончания брони (%s) должна быть позже даты начала (%s)",
                     bookingDto.getEnd(), bookingDto.getStart()));
         }
     }
 
-    private int validatePage(int from, int size) {
+    /**
+     * Ошибки в датах отклоняют весь пакет: это ошибка клиента, а не отказ по отдельной вещи.
+     */
+    static void validateBatch(List<BookItemRequestDto> requestDtos) {
+        if (requestDtos.isEmpty() || requestDtos.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException(String.format(
+                    "В пакете должно быть от 1 до %s заявок, получено %s", MAX_BATCH_SIZE, requestDtos.size()));
+        }
+        for (int i = 0; i < requestDtos.size(); i++) {
+            BookItemRequestDto requestDto = requestDtos.get(i);
+            if (requestDto == null) {
+                throw new ValidationException(String.format("Заявка %s: не заполнена", i));
+            } else if (requestDto.getStart() == null || requestDto.getEnd() == null) {
+                throw new ValidationException(String.format("Заявка %s: не указаны даты брони", i));
+            }
+            try {
+                validateBooking(requestDto);
+            } catch (ValidationException e) {
+                throw new ValidationException(String.format("Заявка %s: %s", i, e.getMessage()));
+            }
+        }
+    }
+
+    static void validateDecisions(List<BookingDecisionDto> decisions) {
+        if (decisions.isEmpty() || decisions.size() > MAX_BATCH_SIZE) {
+            throw new ValidationException(String.format(
+                    "В пакете должно быть от 1 до %s решений, получено %s", MAX_BATCH_SIZE, decisions.size()));
+        }
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            if (decision == null || decision.getBookingId() == null || decision.getApproved() == null) {
+                throw new ValidationException(String.format("Решение %s: не указаны бронь или решение по ней", i));
+            }
+        }
+    }
+
+    static int validatePage(int from, int size) {
         if (size <= 0) {
             throw new ValidationException(String.format("Параметр size (%s) задан некорректно", size));
         }
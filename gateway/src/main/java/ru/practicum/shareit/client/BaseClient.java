@@ -5,14 +5,31 @@ import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    static {
+        HOP_BY_HOP_HEADERS.addAll(List.of(HttpHeaders.CONNECTION, "Keep-Alive", HttpHeaders.PROXY_AUTHENTICATE,
+                HttpHeaders.PROXY_AUTHORIZATION, HttpHeaders.TE, HttpHeaders.TRAILER,
+                HttpHeaders.TRANSFER_ENCODING, HttpHeaders.UPGRADE));
+    }
+
     protected final RestTemplate rest;
+    private final ResponseCache responseCache;
 
     public BaseClient(RestTemplate rest) {
+        this(rest, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable ResponseCache responseCache) {
         this.rest = rest;
+        this.responseCache = responseCache;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -83,24 +100,59 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
+    /**
+     * Параметры постраничного запроса; курсор следующей страницы передаётся серверу, только если он задан.
+     */
+    protected static String pagePath(String path, Map<String, Object> parameters, @Nullable String cursor) {
+        if (cursor == null) {
+            return path;
+        }
+        parameters.put("cursor", cursor);
+        return path + "&cursor={cursor}";
+    }
+
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method,
                                                           String path,
                                                           Long userId,
                                                           @Nullable Map<String, Object> parameters,
                                                           @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        HttpHeaders headers = defaultHeaders(userId);
+        String cacheKey = null;
+        ResponseEntity<Object> cachedResponse = null;
+        if (method == HttpMethod.GET && responseCache != null) {
+            cacheKey = cacheKey(path, userId, parameters);
+            cachedResponse = responseCache.get(cacheKey);
+            if (cachedResponse != null) {
+                headers.setIfNoneMatch(cachedResponse.getHeaders().getETag());
+            }
+        }
+        HttpEntity<T> requestEntity = new HttpEntity<>(body, headers);
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return ResponseEntity.status(e.getRawStatusCode())
+                    .headers(forwardedHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
         }
-        return prepareGatewayResponse(shareitServerResponse);
+        if (cachedResponse != null && shareitServerResponse.getStatusCode() == HttpStatus.NOT_MODIFIED) {
+            return cachedResponse;
+        }
+        ResponseEntity<Object> gatewayResponse = prepareGatewayResponse(shareitServerResponse);
+        if (cacheKey != null) {
+            responseCache.put(cacheKey, gatewayResponse);
+        }
+        return gatewayResponse;
+    }
+
+    private String cacheKey(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        URI uri = rest.getUriTemplateHandler().expand(path, parameters != null ? parameters : Map.of());
+        return uri + " " + userId;
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -113,17 +165,28 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    /**
+     * Ответ сервера пересылается без разбора JSON: тело остаётся массивом байт, а статус и заголовки,
+     * в том числе Content-Type и Content-Length, сохраняются.
+     */
+    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        return ResponseEntity.status(response.getStatusCodeValue())
+                .headers(forwardedHeaders(response.getHeaders()))
+                .body(response.getBody());
+    }
 
-        if (response.hasBody()) {
-            return responseBuilder.body(response.getBody());
+    /**
+     * Заголовки ответа сервера без заголовков, которые относятся только к соединению сервера со шлюзом.
+     */
+    protected static HttpHeaders forwardedHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders != null) {
+            serverHeaders.forEach((name, values) -> {
+                if (!HOP_BY_HOP_HEADERS.contains(name)) {
+                    headers.addAll(name, values);
+                }
+            });
         }
-
-        return responseBuilder.build();
+        return headers;
     }
 }
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Неблокирующий аналог {@link BaseClient}: ответ сервера, в том числе ошибочный, отдаётся вызывающему
+ * как есть, а тело пересылается потоком буферов, не собираясь целиком в памяти шлюза.
+ */
+public class ReactiveBaseClient {
+    protected final WebClient webClient;
+
+    public ReactiveBaseClient(WebClient webClient) {
+        this.webClient = webClient;
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, @Nullable Long userId) {
+        return get(path, userId, Map.of());
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> get(String path, @Nullable Long userId,
+                                                         Map<String, Object> parameters) {
+        return exchange(HttpMethod.GET, path, userId, parameters, null, MediaType.APPLICATION_JSON);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> post(String path, @Nullable Long userId, Object body) {
+        return exchange(HttpMethod.POST, path, userId, Map.of(), body, MediaType.APPLICATION_JSON);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> patch(String path, @Nullable Long userId,
+                                                           @Nullable Object body) {
+        return exchange(HttpMethod.PATCH, path, userId, Map.of(), body, MediaType.APPLICATION_JSON);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> delete(String path, @Nullable Long userId) {
+        return exchange(HttpMethod.DELETE, path, userId, Map.of(), null, MediaType.APPLICATION_JSON);
+    }
+
+    protected static String pagePath(String path, Map<String, Object> parameters, @Nullable String cursor) {
+        return BaseClient.pagePath(path, parameters, cursor);
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> exchange(HttpMethod method,
+                                                              String path,
+                                                              @Nullable Long userId,
+                                                              Map<String, Object> parameters,
+                                                              @Nullable Object body,
+                                                              MediaType accept) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters)
+                .accept(accept)
+                .headers(headers -> {
+                    if (userId != null) {
+                        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+                    }
+                });
+        WebClient.RequestHeadersSpec<?> requestWithBody = body == null
+                ? request
+                : request.contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+        return requestWithBody.retrieve()
+                // ошибки сервера не превращаются в исключения, а пересылаются клиенту вместе с телом
+                .onRawStatus(status -> status >= 400, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> ResponseEntity.status(response.getStatusCodeValue())
+                        .headers(BaseClient.forwardedHeaders(response.getHeaders()))
+                        .body(response.getBody()));
+    }
+}
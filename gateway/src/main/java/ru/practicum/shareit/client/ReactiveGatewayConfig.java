@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+/**
+ * Реактивный режим шлюза: входящие запросы обслуживает Reactor Netty, запросы к серверу уходят через
+ * {@link org.springframework.web.reactive.function.client.WebClient}. Пул соединений с сервером настраивается
+ * теми же свойствами shareit-server.http-client.*, что и {@link HttpClientConfig}; пул Reactor Netty ведётся
+ * на каждый адрес отдельно, поэтому его размер задаёт max-connections-per-route.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveGatewayConfig {
+
+    /**
+     * Без явной фабрики Spring Boot запустил бы реактивное приложение на Tomcat, который тоже есть в classpath.
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItServerConnectionProvider(
+            @Value("${shareit-server.http-client.max-connections-per-route}") int maxConnectionsPerRoute,
+            @Value("${shareit-server.http-client.connection-request-timeout}") Duration connectionRequestTimeout,
+            @Value("${shareit-server.http-client.idle-timeout}") Duration idleTimeout) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxConnectionsPerRoute)
+                .pendingAcquireTimeout(connectionRequestTimeout)
+                .maxIdleTime(idleTimeout)
+                .evictInBackground(idleTimeout)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public WebClientCustomizer shareItServerConnector(
+            ConnectionProvider shareItServerConnectionProvider,
+            @Value("${shareit-server.http-client.connect-timeout}") Duration connectTimeout,
+            @Value("${shareit-server.http-client.read-timeout}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.create(shareItServerConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        ReactorClientHttpConnector connector = new ReactorClientHttpConnector(httpClient);
+        return builder -> builder.clientConnector(connector);
+    }
+}
@@ -0,0 +1,69 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Ответы сервера на GET-запросы, сохранённые вместе с их ETag. Ключ включает адрес запроса
+ * с параметрами и пользователя из X-Sharer-User-Id. Сохранённый ответ не считается свежим:
+ * шлюз каждый раз переспрашивает сервер с If-None-Match и отдаёт его только на ответ 304.
+ * Объём кеша ограничен суммарным размером тел ответов, а ответы крупнее max-entry-size не сохраняются.
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ResponseCache implements MeterBinder {
+    private final Cache<String, ResponseEntity<Object>> responses;
+    private final long maxEntryBytes;
+
+    public ResponseCache(@Value("${shareit-gateway.response-cache.max-size:64MB}") DataSize maxSize,
+                         @Value("${shareit-gateway.response-cache.max-entry-size:1MB}") DataSize maxEntrySize) {
+        this.maxEntryBytes = maxEntrySize.toBytes();
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((String key, ResponseEntity<Object> response) -> weigh(key, response))
+                .recordStats()
+                .build();
+    }
+
+    public ResponseEntity<Object> get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    /**
+     * Сохраняются только успешные ответы с ETag не крупнее max-entry-size, остальные удаляют прежнюю запись.
+     */
+    public void put(String key, ResponseEntity<Object> response) {
+        if (response.getStatusCode() == HttpStatus.OK && response.getHeaders().getETag() != null
+                && bodySize(response) <= maxEntryBytes) {
+            responses.put(key, response);
+        } else {
+            responses.invalidate(key);
+        }
+    }
+
+    private static int weigh(String key, ResponseEntity<Object> response) {
+        return (int) Math.min(Integer.MAX_VALUE, key.length() + bodySize(response));
+    }
+
+    private static long bodySize(ResponseEntity<Object> response) {
+        Object body = response.getBody();
+        if (body instanceof byte[]) {
+            return ((byte[]) body).length;
+        }
+        return Math.max(0, response.getHeaders().getContentLength());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, responses, "gateway.responses");
+    }
+}
@@ -2,33 +2,59 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ResponseCache responseCache) {
         super(
                 builder
                         .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .build(),
+                responseCache
         );
     }
 
-    public ResponseEntity<Object> getItems(long userId) {
-        return get("", userId);
+    public ResponseEntity<Object> getItems(long userId, Long fromId, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "fromId", fromId,
+                "size", size
+        );
+        return get("?fromId={fromId}&size={size}", userId, parameters);
+    }
+
+    public void streamItems(long userId, Integer size, OutputStream outputStream) {
+        Map<String, Object> parameters = Map.of(
+                "size", size
+        );
+        rest.execute("?size={size}", HttpMethod.GET,
+                request -> {
+                    request.getHeaders().setAccept(List.of(MediaType.APPLICATION_NDJSON));
+                    request.getHeaders().set("X-Sharer-User-Id", String.valueOf(userId));
+                },
+                response -> StreamUtils.copy(response.getBody(), outputStream),
+                parameters);
     }
 
     public ResponseEntity<Object> createItem(long userId, ItemRequestDto requestDto) {
@@ -43,15 +69,37 @@ public class ItemClient extends BaseClient {
         return patch("/" + itemId, userId, requestDto);
     }
 
+    public ResponseEntity<Object> getItemAvailability(long userId, Long itemId, LocalDateTime from,
+                                                      LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
     public ResponseEntity<Object> delItem(long userId, Long itemId) {
         return delete("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> searchItems(long userId, String text) {
+    public ResponseEntity<Object> searchItems(long userId, String text, LocalDateTime start, LocalDateTime end,
+                                              Integer from, Integer size) {
+        if (start == null) {
+            Map<String, Object> parameters = Map.of(
+                    "text", text,
+                    "from", from,
+                    "size", size
+            );
+            return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        }
         Map<String, Object> parameters = Map.of(
-                "text", text
+                "text", text,
+                "start", start,
+                "end", end,
+                "from", from,
+                "size", size
         );
-        return get("/search?text={text}", userId, parameters);
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
     }
 
     public ResponseEntity<Object> addItemComment(long userId, Long itemId, CommentRequestDto requestDto) {
@@ -2,16 +2,25 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemRequestDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping("/items")
 @RequiredArgsConstructor
 @Slf4j
@@ -20,8 +29,22 @@ public class ItemController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> findUserItems(@RequestHeader("X-Sharer-User-Id") long userId) {
-        return itemClient.getItems(userId);
+    public ResponseEntity<Object> findUserItems(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PositiveOrZero @RequestParam(name = "fromId", defaultValue = "0") Long fromId,
+            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        log.info("Get items, userId={}, fromId={}, size={}", userId, fromId, size);
+        return itemClient.getItems(userId, fromId, size);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserItems(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @Positive @RequestParam(name = "size", defaultValue = "100") Integer size) {
+        log.info("Stream items, userId={}, size={}", userId, size);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(outputStream -> itemClient.streamItems(userId, size, outputStream));
     }
 
     @PostMapping
@@ -43,6 +66,17 @@ public class ItemController {
         return itemClient.getItem(userId, id);
     }
 
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<Object> getItemAvailability(
+            @PathVariable long id,
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Get item availability, itemId={}, userId={}, from={}, to={}", id, userId, from, to);
+        validateWindow(from, to);
+        return itemClient.getItemAvailability(userId, id, from, to);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Object> deleteItemById(@PathVariable long id,
                                                  @RequestHeader("X-Sharer-User-Id") long userId) {
@@ -50,9 +84,15 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItems(@RequestParam(required = false) String text,
-                                              @RequestHeader("X-Sharer-User-Id") long userId) {
-        return itemClient.searchItems(userId, text);
+    public ResponseEntity<Object> searchItems(
+            @RequestParam(required = false) String text,
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        validatePeriod(start, end);
+        return itemClient.searchItems(userId, text, start, end, from, size);
     }
 
     @PostMapping("/{id}/comment")
@@ -61,5 +101,20 @@ public class ItemController {
                                                  @RequestHeader("X-Sharer-User-Id") long userId) {
         return itemClient.addItemComment(userId, id, commentDto);
     }
-}
 
+    static void validatePeriod(LocalDateTime start, LocalDateTime end) {
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("Для поиска свободных вещей нужно указать и начало, и конец периода");
+        } else if (start != null && !start.isBefore(end)) {
+            throw new ValidationException(String.format(
+                    "Конец периода (%s) должен быть позже его начала (%s)", end, start));
+        }
+    }
+
+    static void validateWindow(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException(String.format(
+                    "Конец окна календаря (%s) должен быть позже его начала (%s)", to, from));
+        }
+    }
+}
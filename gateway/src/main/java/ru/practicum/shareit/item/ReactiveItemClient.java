@@ -0,0 +1,89 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.item.dto.CommentRequestDto;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveItemClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/items";
+
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItems(long userId, Long fromId, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "fromId", fromId,
+                "size", size
+        );
+        return get("?fromId={fromId}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamItems(long userId, Integer size) {
+        Map<String, Object> parameters = Map.of(
+                "size", size
+        );
+        return exchange(HttpMethod.GET, "?size={size}", userId, parameters, null, MediaType.APPLICATION_NDJSON);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItem(long userId, ItemRequestDto requestDto) {
+        return post("", userId, requestDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItem(long userId, Long itemId) {
+        return get("/" + itemId, userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updItem(long userId, Long itemId, ItemRequestDto requestDto) {
+        return patch("/" + itemId, userId, requestDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemAvailability(long userId, Long itemId,
+                                                                      LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "to", to
+        );
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> delItem(long userId, Long itemId) {
+        return delete("/" + itemId, userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchItems(long userId, String text, LocalDateTime start,
+                                                              LocalDateTime end, Integer from, Integer size) {
+        // text необязателен, а Map.of не принимает null
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("text", text);
+        parameters.put("from", from);
+        parameters.put("size", size);
+        if (start == null) {
+            return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("start", start);
+        parameters.put("end", end);
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addItemComment(long userId, Long itemId,
+                                                                 CommentRequestDto requestDto) {
+        return post("/" + itemId + "/comment", userId, requestDto);
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.dto.CommentRequestDto;
+import ru.practicum.shareit.item.dto.ItemRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
+
+/**
+ * Реактивный вариант {@link ItemController}.
+ */
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequestMapping("/items")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveItemController {
+    private final ReactiveItemClient itemClient;
+
+    @GetMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findUserItems(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @PositiveOrZero @RequestParam(name = "fromId", defaultValue = "0") Long fromId,
+            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        log.info("Get items, userId={}, fromId={}, size={}", userId, fromId, size);
+        return itemClient.getItems(userId, fromId, size);
+    }
+
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Mono<ResponseEntity<Flux<DataBuffer>>> streamUserItems(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @Positive @RequestParam(name = "size", defaultValue = "100") Integer size) {
+        log.info("Stream items, userId={}, size={}", userId, size);
+        return itemClient.streamItems(userId, size);
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createItem(@Valid @RequestBody ItemRequestDto itemDto,
+                                                             @RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemClient.createItem(userId, itemDto);
+    }
+
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updateItem(@PathVariable long id,
+                                                             @RequestBody ItemRequestDto itemDto,
+                                                             @RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemClient.updItem(userId, id, itemDto);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> findItemById(@PathVariable long id,
+                                                               @RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemClient.getItem(userId, id);
+    }
+
+    @GetMapping("/{id}/availability")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getItemAvailability(
+            @PathVariable long id,
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Get item availability, itemId={}, userId={}, from={}, to={}", id, userId, from, to);
+        ItemController.validateWindow(from, to);
+        return itemClient.getItemAvailability(userId, id, from, to);
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> deleteItemById(@PathVariable long id,
+                                                                 @RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemClient.delItem(userId, id);
+    }
+
+    @GetMapping("/search")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> searchItems(
+            @RequestParam(required = false) String text,
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+        ItemController.validatePeriod(start, end);
+        return itemClient.searchItems(userId, text, start, end, from, size);
+    }
+
+    @PostMapping("/{id}/comment")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> addItemComment(@PathVariable long id,
+                                                                 @Valid @RequestBody CommentRequestDto commentDto,
+                                                                 @RequestHeader("X-Sharer-User-Id") long userId) {
+        return itemClient.addItemComment(userId, id, commentDto);
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.request;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
@@ -12,6 +13,7 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import javax.validation.Valid;
 
 @Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 @RequestMapping(path = "/requests")
 @RequiredArgsConstructor
 @Slf4j
@@ -28,17 +30,19 @@ public class ItemRequestController {
     @GetMapping
     public ResponseEntity<Object> findUserItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
                                                        @RequestParam(defaultValue = "0") int from,
-                                                       @RequestParam(defaultValue = "20") int size) {
+                                                       @RequestParam(defaultValue = "20") int size,
+                                                       @RequestParam(required = false) String cursor) {
         validatePage(from, size);
-        return itemRequestClient.getItemRequests(userId, from, size);
+        return itemRequestClient.getItemRequests(userId, from, size, cursor);
     }
 
     @GetMapping("/all")
     public ResponseEntity<Object> findAllItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
                                                       @RequestParam(defaultValue = "0") int from,
-                                                      @RequestParam(defaultValue = "20") int size) {
+                                                      @RequestParam(defaultValue = "20") int size,
+                                                      @RequestParam(required = false) String cursor) {
         validatePage(from, size);
-        return itemRequestClient.getAllItemRequests(userId, from, size);
+        return itemRequestClient.getAllItemRequests(userId, from, size, cursor);
     }
 
     @GetMapping("/{id}")
@@ -47,7 +51,7 @@ public class ItemRequestController {
         return itemRequestClient.getItemRequest(userId, id);
     }
 
-    private int validatePage(int from, int size) {
+    static int validatePage(int from, int size) {
         if (size <= 0) {
             throw new ValidationException(String.format("Параметр size (%s) задан некорректно", size));
         }
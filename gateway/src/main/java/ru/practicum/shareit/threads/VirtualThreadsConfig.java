@@ -0,0 +1,15 @@
+package ru.practicum.shareit.threads;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Включает {@link VirtualThreadsSupport} свойством shareit-gateway.virtual-threads.enabled. Поток, ожидающий
+ * ответ сервера в RestTemplate, при этом не занимает поток ОС.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-gateway.virtual-threads.enabled", havingValue = "true")
+@Import(VirtualThreadsSupport.class)
+public class VirtualThreadsConfig {
+}
@@ -0,0 +1,42 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.user.dto.UserRequestDto;
+
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveUserClient extends ReactiveBaseClient {
+    private static final String API_PREFIX = "/users";
+
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUsers() {
+        return get("", null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> createUser(UserRequestDto requestDto) {
+        return post("", null, requestDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> getUser(long userId) {
+        return get("/" + userId, null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> updUser(long userId, UserRequestDto requestDto) {
+        return patch("/" + userId, null, requestDto);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> delUser(long userId) {
+        return delete("/" + userId, null);
+    }
+}
@@ -0,0 +1,139 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(BookingController.class)
+class BookingControllerTest {
+
+    @MockBean
+    private BookingClient client;
+
+    @Autowired
+    private MockMvc mvc;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Test
+    void bookItemsPassesValidBatchToServer() throws Exception {
+        when(client.bookItems(anyLong(), anyList()))
+                .thenReturn(ResponseEntity.status(HttpStatus.CREATED).body("[]"));
+
+        mvc.perform(post("/bookings/batch")
+                .header("X-Sharer-User-Id", "1")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + booking(1, start, start.plusDays(1)) + "]"))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void bookItemsRejectsBatchOverLimit() throws Exception {
+        String entry = booking(1, start, start.plusDays(1));
+
+        mvc.perform(post("/bookings/batch")
+                .header("X-Sharer-User-Id", "1")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + String.join(",",
+                        Collections.nCopies(BookingController.MAX_BATCH_SIZE + 1, entry)) + "]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("В пакете должно быть от 1 до 500 заявок, получено 501")));
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void bookItemsRejectsEmptyBatch() throws Exception {
+        mvc.perform(post("/bookings/batch")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void bookItemsRejectsEndNotAfterStart() throws Exception {
+        mvc.perform(post("/bookings/batch")
+                .header("X-Sharer-User-Id", "1")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + booking(1, start, start.plusDays(1)) + "," + booking(2, start, start) + "]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("Заявка 1: Дата окончания брони")));
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void bookItemsRejectsPastStart() throws Exception {
+        mvc.perform(post("/bookings/batch")
+                .header("X-Sharer-User-Id", "1")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[" + booking(1, start.minusDays(2), start) + "]"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void bookItemsRejectsNullEntryAndMissingItemId() throws Exception {
+        for (String body : new String[]{
+                "[" + booking(1, start, start.plusDays(1)) + ",null]",
+                "[{\"start\":\"" + start + "\",\"end\":\"" + start.plusDays(1) + "\"}]"}) {
+            mvc.perform(post("/bookings/batch")
+                    .header("X-Sharer-User-Id", "1")
+                    .characterEncoding(StandardCharsets.UTF_8)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(body))
+                    .andExpect(status().isBadRequest());
+        }
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void bookItemRejectsEndNotAfterStartLikeBatch() throws Exception {
+        mvc.perform(post("/bookings")
+                .header("X-Sharer-User-Id", "1")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(booking(1, start, start)))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("должна быть позже даты начала")));
+        verifyNoInteractions(client);
+    }
+
+    @Test
+    void updateBookingsRejectsNullEntry() throws Exception {
+        mvc.perform(patch("/bookings/batch")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[{\"bookingId\":1,\"approved\":true},null]"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(client);
+    }
+
+    private static String booking(long itemId, LocalDateTime start, LocalDateTime end) {
+        return String.format("{\"itemId\":%s,\"start\":\"%s\",\"end\":\"%s\"}", itemId, start, end);
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.client.StubShareItServer;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@Import(StubShareItServer.Config.class)
+class ReactiveBookingControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private StubShareItServer server;
+
+    private final LocalDateTime start = LocalDateTime.now().plusDays(1).withNano(0);
+
+    @Test
+    void bookItemRejectsEndBeforeStart() {
+        server.respond(HttpStatus.CREATED, "{}");
+
+        client.post().uri("/bookings")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(booking(start.plusDays(1), start))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").value(containsString("должна быть позже даты начала"));
+
+        assertThat(server.getRequests(), empty());
+    }
+
+    @Test
+    void bookItemsRejectsNullEntry() {
+        server.respond(HttpStatus.OK, "[]");
+
+        client.post().uri("/bookings/batch")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("[" + booking(start, start.plusDays(1)) + ",null]")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(server.getRequests(), empty());
+    }
+
+    @Test
+    void bookItemPassesCreatedThrough() {
+        server.respond(HttpStatus.CREATED, "{\"id\":5,\"status\":\"WAITING\"}");
+
+        client.post().uri("/bookings")
+                .header("X-Sharer-User-Id", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(booking(start, start.plusDays(1)))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody().json("{\"id\":5,\"status\":\"WAITING\"}");
+
+        assertThat(server.getRequests(), hasSize(1));
+        assertThat(server.getRequests().get(0).method(), equalTo(HttpMethod.POST));
+        assertThat(server.getRequests().get(0).url().toString(), equalTo("http://localhost:9090/bookings"));
+    }
+
+    @Test
+    void updateBookingPassesBadRequestThrough() {
+        server.respond(HttpStatus.BAD_REQUEST, "{\"error\":\"Бронь (id = 5) уже подтверждена\"}");
+
+        client.patch().uri("/bookings/5?approved=true")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().json("{\"error\":\"Бронь (id = 5) уже подтверждена\"}");
+
+        assertThat(server.getRequests(), hasSize(1));
+    }
+
+    private static String booking(LocalDateTime start, LocalDateTime end) {
+        return String.format("{\"itemId\":1,\"start\":\"%s\",\"end\":\"%s\"}", start, end);
+    }
+}
@@ -0,0 +1,137 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.client.MockServerRestTemplateCustomizer;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.ResponseActions;
+import org.springframework.test.web.client.response.DefaultResponseCreator;
+import org.springframework.util.unit.DataSize;
+import ru.practicum.shareit.item.ItemClient;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+
+class BaseClientTest {
+    private static final String SERVER_URL = "http://localhost:9090";
+
+    private final MockServerRestTemplateCustomizer customizer = new MockServerRestTemplateCustomizer();
+
+    private final ItemClient client = new ItemClient(SERVER_URL, new RestTemplateBuilder(customizer),
+            new ResponseCache(DataSize.ofMegabytes(1), DataSize.ofBytes(64)));
+
+    private final MockRestServiceServer server = customizer.getServer();
+
+    @Test
+    void getRevalidatesCachedResponseAndReturnsItOnNotModified() {
+        // given
+        expectGet(1L, null).andRespond(ok("\"v1\"", "{\"id\":1,\"name\":\"Дрель\"}"));
+        expectGet(1L, "\"v1\"").andRespond(withStatus(HttpStatus.NOT_MODIFIED).headers(etag("\"v1\"")));
+
+        // when
+        ResponseEntity<Object> first = client.getItem(1L, 1L);
+        ResponseEntity<Object> second = client.getItem(1L, 1L);
+
+        // then
+        server.verify();
+        assertThat(second.getStatusCode(), is(HttpStatus.OK));
+        assertThat(body(second), equalTo("{\"id\":1,\"name\":\"Дрель\"}"));
+        assertThat(second.getHeaders().getETag(), equalTo(first.getHeaders().getETag()));
+    }
+
+    @Test
+    void getKeepsSeparateEntriesPerUser() {
+        // given
+        expectGet(1L, null).andRespond(ok("\"owner\"", "{\"id\":1,\"lastBooking\":{}}"));
+        expectGet(2L, null).andRespond(ok("\"booker\"", "{\"id\":1}"));
+        expectGet(2L, "\"booker\"").andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+        expectGet(1L, "\"owner\"").andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        // when
+        client.getItem(1L, 1L);
+        client.getItem(2L, 1L);
+        ResponseEntity<Object> booker = client.getItem(2L, 1L);
+        ResponseEntity<Object> owner = client.getItem(1L, 1L);
+
+        // then
+        server.verify();
+        assertThat(body(booker), equalTo("{\"id\":1}"));
+        assertThat(body(owner), equalTo("{\"id\":1,\"lastBooking\":{}}"));
+    }
+
+    @Test
+    void getDropsEntryWhenResponseOutgrowsMaxEntrySize() {
+        // given
+        String large = "{\"id\":1,\"description\":\"" + "a".repeat(100) + "\"}";
+        expectGet(1L, null).andRespond(ok("\"v1\"", "{\"id\":1}"));
+        expectGet(1L, "\"v1\"").andRespond(ok("\"v2\"", large));
+        expectGet(1L, null).andRespond(ok("\"v2\"", large));
+
+        // when
+        client.getItem(1L, 1L);
+        ResponseEntity<Object> changed = client.getItem(1L, 1L);
+        ResponseEntity<Object> again = client.getItem(1L, 1L);
+
+        // then
+        server.verify();
+        assertThat(body(changed), equalTo(large));
+        assertThat(body(again), equalTo(large));
+    }
+
+    @Test
+    void getPassesServerErrorThroughWithoutCaching() {
+        // given
+        expectGet(1L, null).andRespond(withStatus(HttpStatus.NOT_FOUND)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body("{\"error\":\"Вещь (id = 1) не найдена\"}".getBytes(StandardCharsets.UTF_8)));
+        expectGet(1L, null).andRespond(ok("\"v1\"", "{\"id\":1}"));
+
+        // when
+        ResponseEntity<Object> missing = client.getItem(1L, 1L);
+        ResponseEntity<Object> found = client.getItem(1L, 1L);
+
+        // then
+        server.verify();
+        assertThat(missing.getStatusCode(), is(HttpStatus.NOT_FOUND));
+        assertThat(body(missing), equalTo("{\"error\":\"Вещь (id = 1) не найдена\"}"));
+        assertThat(found.getStatusCode(), is(HttpStatus.OK));
+    }
+
+    private ResponseActions expectGet(long userId, String ifNoneMatch) {
+        return server.expect(requestTo(SERVER_URL + "/items/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header("X-Sharer-User-Id", String.valueOf(userId)))
+                .andExpect(ifNoneMatch == null ? headerDoesNotExist(HttpHeaders.IF_NONE_MATCH)
+                        : header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch));
+    }
+
+    private static DefaultResponseCreator ok(String etag, String body) {
+        return withStatus(HttpStatus.OK)
+                .headers(etag(etag))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static HttpHeaders etag(String etag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(etag);
+        return headers;
+    }
+
+    private static String body(ResponseEntity<Object> response) {
+        return new String((byte[]) response.getBody(), StandardCharsets.UTF_8);
+    }
+}
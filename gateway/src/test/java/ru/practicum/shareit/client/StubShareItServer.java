@@ -0,0 +1,64 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Сервер ShareIt для тестов реактивного шлюза: запросы WebClient не уходят в сеть, а записываются,
+ * и на каждый отдаётся заданный тестом ответ.
+ */
+public class StubShareItServer implements ExchangeFunction {
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+    private volatile HttpStatus status = HttpStatus.OK;
+    private volatile HttpHeaders headers = new HttpHeaders();
+    private volatile String body = "";
+
+    @Override
+    public Mono<ClientResponse> exchange(ClientRequest request) {
+        requests.add(request);
+        return Mono.just(ClientResponse.create(status)
+                .headers(responseHeaders -> responseHeaders.addAll(headers))
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+
+    public void respond(HttpStatus status, String body) {
+        respond(status, new HttpHeaders(), body);
+    }
+
+    public void respond(HttpStatus status, HttpHeaders headers, String body) {
+        requests.clear();
+        this.status = status;
+        this.headers = headers;
+        this.body = body;
+    }
+
+    public List<ClientRequest> getRequests() {
+        return requests;
+    }
+
+    @TestConfiguration
+    public static class Config {
+        @Bean
+        public StubShareItServer stubShareItServer() {
+            return new StubShareItServer();
+        }
+
+        @Bean
+        public WebClientCustomizer stubShareItServerExchange(StubShareItServer stubShareItServer) {
+            return builder -> builder.exchangeFunction(stubShareItServer);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.client.StubShareItServer;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@Import(StubShareItServer.Config.class)
+class ReactiveItemControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private StubShareItServer server;
+
+    @Test
+    void getItemAvailabilityRejectsEmptyWindow() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 12, 0, 1);
+        server.respond(HttpStatus.OK, "{}");
+
+        client.get().uri("/items/1/availability?from={from}&to={to}", from, from)
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo(
+                        "Конец окна календаря (2030-01-01T12:00:01) должен быть позже его начала (2030-01-01T12:00:01)");
+
+        assertThat(server.getRequests(), empty());
+    }
+
+    @Test
+    void findItemByIdPassesResponseThrough() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag("\"v1\"");
+        server.respond(HttpStatus.OK, headers, "{\"id\":1,\"name\":\"Дрель\",\"available\":true}");
+
+        client.get().uri("/items/1")
+                .header("X-Sharer-User-Id", "2")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"v1\"")
+                .expectBody().json("{\"id\":1,\"name\":\"Дрель\",\"available\":true}");
+
+        assertThat(server.getRequests(), hasSize(1));
+        assertThat(server.getRequests().get(0).url().toString(), equalTo("http://localhost:9090/items/1"));
+        assertThat(server.getRequests().get(0).headers().getFirst("X-Sharer-User-Id"), equalTo("2"));
+    }
+}
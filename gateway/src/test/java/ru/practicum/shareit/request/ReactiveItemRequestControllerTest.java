@@ -0,0 +1,66 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.client.StubShareItServer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@Import(StubShareItServer.Config.class)
+class ReactiveItemRequestControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private StubShareItServer server;
+
+    @Test
+    void findAllItemRequestsRejectsNegativeFrom() {
+        server.respond(HttpStatus.OK, "[]");
+
+        client.get().uri("/requests/all?from=-1&size=20")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.error").isEqualTo("Параметр from (-1) задан некорректно");
+
+        assertThat(server.getRequests(), empty());
+    }
+
+    @Test
+    void findAllItemRequestsPassesPageThrough() {
+        server.respond(HttpStatus.OK, "[{\"id\":3,\"description\":\"Нужна дрель\",\"items\":[]}]");
+
+        client.get().uri("/requests/all?from=0&size=20")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().json("[{\"id\":3,\"description\":\"Нужна дрель\",\"items\":[]}]");
+
+        assertThat(server.getRequests(), hasSize(1));
+        assertThat(server.getRequests().get(0).url().toString(),
+                equalTo("http://localhost:9090/requests/all?from=0&size=20"));
+    }
+
+    @Test
+    void findItemRequestPassesNotFoundThrough() {
+        server.respond(HttpStatus.NOT_FOUND, "{\"error\":\"Запрос (id = 7) не найден\"}");
+
+        client.get().uri("/requests/7")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().json("{\"error\":\"Запрос (id = 7) не найден\"}");
+    }
+}
@@ -0,0 +1,56 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.client.StubShareItServer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+@SpringBootTest(properties = "spring.main.web-application-type=reactive")
+@AutoConfigureWebTestClient
+@Import(StubShareItServer.Config.class)
+class ReactiveUserControllerTest {
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private StubShareItServer server;
+
+    @Test
+    void createUserRejectsInvalidEmail() {
+        server.respond(HttpStatus.CREATED, "{}");
+
+        client.post().uri("/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Dima\",\"email\":\"dimano-mail.ru\"}")
+                .exchange()
+                .expectStatus().isBadRequest();
+
+        assertThat(server.getRequests(), empty());
+    }
+
+    @Test
+    void findUserByIdPassesNotFoundThrough() {
+        server.respond(HttpStatus.NOT_FOUND, "{\"error\":\"Пользователь (id = 99) не найден\"}");
+
+        client.get().uri("/users/99")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody().json("{\"error\":\"Пользователь (id = 99) не найден\"}");
+
+        assertThat(server.getRequests(), hasSize(1));
+        assertThat(server.getRequests().get(0).method(), equalTo(HttpMethod.GET));
+        assertThat(server.getRequests().get(0).url().toString(), equalTo("http://localhost:9090/users/99"));
+    }
+}
@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 @Data
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_bookings")
+    @SequenceGenerator(name = "seq_bookings", sequenceName = "seq_bookings", allocationSize = 50)
     private long id; // уникальный идентификатор вещи;
     @Column(name = "start_date")
     private LocalDateTime start; // дата и время начала бронирования
@@ -4,10 +4,14 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.util.Collection;
+import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
@@ -21,6 +25,18 @@ public class BookingController {
         return new ResponseEntity<>(service.saveBooking(bookingDto, userId), HttpStatus.CREATED);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createBookings(@RequestBody List<BookingDto> bookingDtos,
+                                                      @RequestHeader("X-Sharer-User-Id") long userId) {
+        return service.saveBookings(bookingDtos, userId);
+    }
+
+    @PatchMapping("/batch")
+    public List<BookingBatchResultDto> updateBookings(@RequestBody List<BookingDecisionDto> decisions,
+                                                      @RequestHeader("X-Sharer-User-Id") long userId) {
+        return service.decideBookings(decisions, userId);
+    }
+
     @PatchMapping("/{id}")
     public ResponseEntity<BookingFullDto> updateBooking(@PathVariable long id,
                                                         @RequestHeader("X-Sharer-User-Id") long userId,
@@ -38,18 +54,28 @@ public class BookingController {
     }
 
     @GetMapping
-    public Collection<BookingFullDto> findUserBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                       @RequestParam(defaultValue = "ALL") String state,
-                                                       @RequestParam(defaultValue = "0") int from,
-                                                       @RequestParam(defaultValue = "20") int size) {
-        return service.findUserBookings(userId, state, from, size);
+    public ResponseEntity<Collection<BookingFullDto>> findUserBookings(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        return Cursor.toResponse(cursor == null
+                        ? service.findUserBookings(userId, state, from, size)
+                        : service.findUserBookings(userId, state, Cursor.decode(cursor), size),
+                size, booking -> new Cursor(booking.getStart(), booking.getId()));
     }
 
     @GetMapping("/owner")
-    public Collection<BookingFullDto> findOwnerBookings(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                        @RequestParam(defaultValue = "ALL") String state,
-                                                        @RequestParam(defaultValue = "0") int from,
-                                                        @RequestParam(defaultValue = "20") int size) {
-        return service.findOwnerBookings(userId, state, from, size);
+    public ResponseEntity<Collection<BookingFullDto>> findOwnerBookings(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(defaultValue = "ALL") String state,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        return Cursor.toResponse(cursor == null
+                        ? service.findOwnerBookings(userId, state, from, size)
+                        : service.findOwnerBookings(userId, state, Cursor.decode(cursor), size),
+                size, booking -> new Cursor(booking.getStart(), booking.getId()));
     }
 }
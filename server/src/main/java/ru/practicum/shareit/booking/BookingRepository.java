@@ -1,57 +1,184 @@
 package ru.practicum.shareit.booking;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findAllByBookerId(long bookerId, Pageable pageable);
+    Slice<Booking> findAllByBookerId(long bookerId, Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(
+    Slice<Booking> findAllByBookerIdAndStartBeforeAndEndAfter(
             long bookerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndEndBefore(long bookerId, LocalDateTime end, Pageable pageable);
+    Slice<Booking> findAllByBookerIdAndEndBefore(long bookerId, LocalDateTime end, Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndStartAfter(long bookerId, LocalDateTime start, Pageable pageable);
+    Slice<Booking> findAllByBookerIdAndStartAfter(long bookerId, LocalDateTime start, Pageable pageable);
 
-    Page<Booking> findAllByBookerIdAndStatus(long bookerId, BookingStatus status, Pageable pageable);
+    Slice<Booking> findAllByBookerIdAndStatus(long bookerId, BookingStatus status, Pageable pageable);
 
-    Collection<Booking> findByItemIdAndStatusAndStartBeforeAndEndAfter(
-            long itemId, BookingStatus status, LocalDateTime start, LocalDateTime end);
+    @Query(" select b from Booking b " +
+            " where b.bookerId = ?1 " +
+            "   and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            " order by b.start desc, b.id desc")
+    List<Booking> findNextByBookerId(long bookerId, LocalDateTime start, long id, Pageable pageable);
 
-    @Query(" select b from Item i, Booking b " +
-            " where i.owner = ?1 " +
-            "   and b.itemId = i.id " +
-            "   and (?2 = 'ALL' or " +
-            "        (?2 = 'CURRENT' and ?3 between b.start and b.end) or " +
-            "        (?2 = 'PAST' and ?3 > b.end) or " +
-            "        (?2 = 'FUTURE' and ?3 < b.start) or " +
-            "        (?2 = 'WAITING' and b.status = ?2) or " +
-            "        (?2 = 'REJECTED' and b.status = ?2) " +
-            "       )" +
-            " order by b.start desc")
-    Page<Booking> findAllByOwnerId(long ownerId, String state, LocalDateTime localDateTime, Pageable pageable);
+    @Query(" select b from Booking b " +
+            " where b.bookerId = ?1 " +
+            "   and b.start < ?2 " +
+            "   and b.end > ?2 " +
+            "   and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            " order by b.start desc, b.id desc")
+    List<Booking> findNextByBookerIdAndCurrent(
+            long bookerId, LocalDateTime now, LocalDateTime start, long id, Pageable pageable);
 
-    @Query(value = "select b.* from bookings b " +
-            " where b.item_id = :itemId " +
-            "   and b.booker_id <> :userId " +
-            "   and b.start_date < :now " +
-            " order by b.start_date asc limit 1",
+    @Query(" select b from Booking b " +
+            " where b.bookerId = ?1 " +
+            "   and b.end < ?2 " +
+            "   and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            " order by b.start desc, b.id desc")
+    List<Booking> findNextByBookerIdAndEndBefore(
+            long bookerId, LocalDateTime end, LocalDateTime start, long id, Pageable pageable);
+
+    @Query(" select b from Booking b " +
+            " where b.bookerId = ?1 " +
+            "   and b.start > ?2 " +
+            "   and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            " order by b.start desc, b.id desc")
+    List<Booking> findNextByBookerIdAndStartAfter(
+            long bookerId, LocalDateTime after, LocalDateTime start, long id, Pageable pageable);
+
+    @Query(" select b from Booking b " +
+            " where b.bookerId = ?1 " +
+            "   and b.status = ?2 " +
+            "   and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            " order by b.start desc, b.id desc")
+    List<Booking> findNextByBookerIdAndStatus(
+            long bookerId, BookingStatus status, LocalDateTime start, long id, Pageable pageable);
+
+    /**
+     * Подтверждённые брони одной вещи не пересекаются, поэтому с периодом [start, end) может пересечься
+     * только последняя подтверждённая бронь, начавшаяся раньше end. Её находит один спуск по индексу
+     * ix_bookings_item_status_start, сколько бы броней ни было у вещи в истории.
+     */
+    @Query(value = "select count(*) > 0 from (" +
+            "         select b.end_date from bookings b " +
+            "          where b.item_id = ?1 " +
+            "            and b.status = 'APPROVED' " +
+            "            and b.start_date < ?3 " +
+            "          order by b.start_date desc " +
+            "          limit 1) t " +
+            " where t.end_date > ?2",
             nativeQuery = true)
-    Optional<Booking> findLastBooking(long itemId, long userId, LocalDateTime now);
+    boolean existsApprovedOverlap(long itemId, LocalDateTime start, LocalDateTime end);
+
+    @Query(" select b from Booking b " +
+            " where b.itemId in ?1 " +
+            "   and b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "   and b.start < ?3 " +
+            "   and b.end > ?2")
+    List<Booking> findApprovedOverlaps(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Меняет статус только у броней, всё ещё ожидающих решения, и возвращает число изменённых броней.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(" update Booking b set b.status = ?2 " +
+            " where b.id in ?1 " +
+            "   and b.status = ru.practicum.shareit.booking.BookingStatus.WAITING")
+    int updateWaitingStatus(Collection<Long> ids, BookingStatus status);
+
+    List<Booking> findAllByItemIdAndStatusAndEndAfter(long itemId, BookingStatus status, LocalDateTime end);
+
+    @Query(" select b from Booking b join Item i on i.id = b.itemId " +
+            " where i.owner = ?1 " +
+            " order by b.start desc, b.id desc")
+    Slice<Booking> findAllByOwnerId(long ownerId, Pageable pageable);
+
+    @Query(" select b from Booking b join Item i on i.id = b.itemId " +
+            " where i.owner = ?1 " +
+            "   and b.start < ?2 " +
+            "   and b.end > ?3 " +
+            " order by b.start desc, b.id desc")
+    Slice<Booking> findAllByOwnerIdAndStartBeforeAndEndAfter(
+            long ownerId, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(" select b from Booking b join Item i on i.id = b.itemId " +
+            " where i.owner = ?1 " +
+            "   and b.end < ?2 " +
+            " order by b.start desc, b.id desc")
+    Slice<Booking> findAllByOwnerIdAndEndBefore(long ownerId, LocalDateTime end, Pageable pageable);
+
+    @Query(" select b from Booking b join Item i on i.id = b.itemId " +
+            " where i.owner = ?1 " +
+            "   and b.start > ?2 " +
+            " order by b.start desc, b.id desc")
+    Slice<Booking> findAllByOwnerIdAndStartAfter(long ownerId, LocalDateTime start, Pageable pageable);
+
+    @Query(" select b from Booking b join Item i on i.id = b.itemId " +
+            " where i.owner = ?1 " +
+            "   and b.status = ?2 " +
+            " order by b.start desc, b.id desc")
+    Slice<Booking> findAllByOwnerIdAndStatus(long ownerId, BookingStatus status, Pageable pageable);
+
+    @Query(" select b from Booking b join Item i on i.id = b.itemId " +
+            " where i.owner = ?1 " +
+            "   and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            " order by b.start desc, b.id desc")
+    List<Booking> findNextByOwnerId(long ownerId, LocalDateTime start, long id, Pageable pageable);
+
+    @Query(" select b from Booking b join Item i on i.id = b.itemId " +
+            " where i.owner = ?1 " +
+            "   and b.start < ?2 " +
+            "   and b.end > ?2 " +
+            "   and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            " order by b.start desc, b.id desc")
+    List<Booking> findNextByOwnerIdAndCurrent(
+            long ownerId, LocalDateTime now, LocalDateTime start, long id, Pageable pageable);
+
+    @Query(" select b from Booking b join Item i on i.id = b.itemId " +
+            " where i.owner = ?1 " +
+            "   and b.end < ?2 " +
+            "   and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            " order by b.start desc, b.id desc")
+    List<Booking> findNextByOwnerIdAndEndBefore(
+            long ownerId, LocalDateTime end, LocalDateTime start, long id, Pageable pageable);
+
+    @Query(" select b from Booking b join Item i on i.id = b.itemId " +
+            " where i.owner = ?1 " +
+            "   and b.start > ?2 " +
+            "   and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            " order by b.start desc, b.id desc")
+    List<Booking> findNextByOwnerIdAndStartAfter(
+            long ownerId, LocalDateTime after, LocalDateTime start, long id, Pageable pageable);
+
+    @Query(" select b from Booking b join Item i on i.id = b.itemId " +
+            " where i.owner = ?1 " +
+            "   and b.status = ?2 " +
+            "   and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            " order by b.start desc, b.id desc")
+    List<Booking> findNextByOwnerIdAndStatus(
+            long ownerId, BookingStatus status, LocalDateTime start, long id, Pageable pageable);
 
     @Query(value = "select b.* from bookings b " +
-            " where b.item_id = :itemId " +
-            "   and b.booker_id <> :userId " +
-            "   and b.start_date > :now " +
-            " order by b.start_date desc limit 1",
+            " where b.id in (select t.id from (" +
+            "         select bb.id, row_number() over (" +
+            "                partition by bb.item_id, case when bb.start_date < :now then 0 else 1 end " +
+            "                order by case when bb.start_date < :now then bb.start_date end asc, " +
+            "                         bb.start_date desc) as rn " +
+            "           from bookings bb " +
+            "          where bb.item_id in (:itemIds) " +
+            "            and bb.booker_id <> :userId " +
+            "            and bb.start_date <> :now) t " +
+            "        where t.rn = 1)",
             nativeQuery = true)
-    Optional<Booking> findNextBooking(long itemId, long userId, LocalDateTime now);
+    List<Booking> findLastAndNextBookings(Collection<Long> itemIds, long userId, LocalDateTime now);
 
     Optional<Booking> findByItemIdAndBookerIdAndStatusAndEndBefore(
             long itemId, long userId, BookingStatus status, LocalDateTime now);
@@ -1,19 +1,35 @@
 package ru.practicum.shareit.booking;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.pagination.Cursor;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface BookingService {
     BookingFullDto saveBooking(BookingDto bookingDto, Long bookerId);
 
+    List<BookingBatchResultDto> saveBookings(List<BookingDto> bookingDtos, long bookerId);
+
     Optional<BookingFullDto> updateBooking(Long id, Long ownerId, Boolean approved);
 
+    List<BookingBatchResultDto> decideBookings(List<BookingDecisionDto> decisions, long ownerId);
+
     Collection<BookingFullDto> findUserBookings(long bookerId, String state, int from, int size);
 
     Collection<BookingFullDto> findOwnerBookings(long ownerId, String state, int from, int size);
 
+    Collection<BookingFullDto> findUserBookings(long bookerId, String state, Cursor cursor, int size);
+
+    Collection<BookingFullDto> findOwnerBookings(long ownerId, String state, Cursor cursor, int size);
+
     Optional<BookingFullDto> getBooking(long id, long userId);
+
+    ItemAvailabilityDto getItemAvailability(long itemId, long userId, LocalDateTime from, LocalDateTime to);
 }
@@ -3,21 +3,40 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.dto.IntervalDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserLookup;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -27,34 +46,30 @@ import java.util.stream.Collectors;
 public class BookingServiceImpl implements BookingService {
     private final BookingRepository repository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
+    private final ItemAvailabilityIndex availabilityIndex;
 
-    private User validateUser(long userId) {
-        Optional<User> user = userRepository.findById(userId);
-        if (!user.isPresent()) {
-            throw new NotFoundException(String.format("Пользователь (id = %s) не найден", userId));
-        }
-        return user.get();
+    private Item validateItem(BookingDto bookingDto, Long bookerId) {
+        return validateItem(itemRepository.findById(bookingDto.getItemId()).orElse(null), bookingDto, bookerId,
+                () -> repository.existsApprovedOverlap(
+                        bookingDto.getItemId(), bookingDto.getStart(), bookingDto.getEnd()));
     }
 
-    private Item validateItem(BookingDto bookingDto, Long bookerId) {
-        Optional<Item> item = itemRepository.findById(bookingDto.getItemId());
-        if (!item.isPresent()) {
+    private static Item validateItem(Item item, BookingDto bookingDto, Long bookerId, BooleanSupplier overlaps) {
+        if (item == null) {
             throw new NotFoundException(String.format(
                     "Вещь (id = %s) не найдена", bookingDto.getItemId()));
-        } else if (!item.get().getAvailable()) {
+        } else if (!item.getAvailable()) {
             throw new ValidationException(String.format(
                     "Вещь (id = %s) не доступна", bookingDto.getItemId()));
-        } else if (bookerId != null && item.get().getOwner().equals(bookerId)) {
+        } else if (bookerId != null && item.getOwner().equals(bookerId)) {
             throw new NotFoundException(String.format(
                     "Нельзя забронировать вещь (id = %s), являясь её владельцем", bookingDto.getItemId()));
-        } else if (repository.findByItemIdAndStatusAndStartBeforeAndEndAfter(
-                bookingDto.getItemId(), BookingStatus.APPROVED, bookingDto.getEnd(),
-                bookingDto.getStart()).size() > 0) {
+        } else if (overlaps.getAsBoolean()) {
             throw new ValidationException(String.format(
                     "Вещь (id = %s) уже забронирована на эти даты", bookingDto.getItemId()));
         }
-        return item.get();
+        return item;
     }
 
     private Booking validateBooking(Long bookingId, Long ownerId, Long bookerId) {
@@ -87,112 +102,435 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public BookingFullDto saveBooking(BookingDto bookingDto, Long bookerId) {
         log.info("Заявка на бронирование {} от пользователя (id={})", bookingDto.toString(), bookerId);
-        User booker = validateUser(bookerId);
+        User booker = userLookup.getUser(bookerId);
         Item item = validateItem(bookingDto, bookerId);
         Booking booking = repository.save(
                 BookingMapper.toBooking(bookingDto, bookerId, BookingStatus.WAITING));
         return BookingMapper.toBookingFullDto(booking, booker, item);
     }
 
+    /**
+     * Заявки пакета проверяются теми же правилами, что и отдельная заявка, но пользователь, вещи
+     * и пересечения с подтверждёнными бронями загружаются одним запросом на весь пакет.
+     * Отклонённые заявки не мешают сохранить остальные: все принятые сохраняются в одной транзакции.
+     */
+    @Transactional
+    @Override
+    public List<BookingBatchResultDto> saveBookings(List<BookingDto> bookingDtos, long bookerId) {
+        log.info("Пакет из {} заявок на бронирование от пользователя (id={})", bookingDtos.size(), bookerId);
+        User booker = userLookup.getUser(bookerId);
+        List<BookingDto> dated = bookingDtos.stream()
+                .filter(bookingDto -> bookingDto.getItemId() != null
+                        && bookingDto.getStart() != null && bookingDto.getEnd() != null)
+                .collect(Collectors.toList());
+        Set<Long> itemIds = dated.stream()
+                .map(BookingDto::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, List<Booking>> approved = findApprovedOverlaps(itemIds, dated);
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingDtos.size()];
+        List<Integer> acceptedIndexes = new ArrayList<>();
+        List<Booking> accepted = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            try {
+                if (bookingDto.getStart() == null || bookingDto.getEnd() == null
+                        || !bookingDto.getStart().isBefore(bookingDto.getEnd())) {
+                    throw new ValidationException(String.format(
+                            "Неверный период брони вещи (id = %s)", bookingDto.getItemId()));
+                }
+                validateItem(items.get(bookingDto.getItemId()), bookingDto, bookerId,
+                        () -> overlaps(approved.get(bookingDto.getItemId()), bookingDto));
+                acceptedIndexes.add(i);
+                accepted.add(BookingMapper.toBooking(bookingDto, bookerId, BookingStatus.WAITING));
+            } catch (NotFoundException e) {
+                results[i] = new BookingBatchResultDto(i, HttpStatus.NOT_FOUND.value(), null, e.getMessage());
+            } catch (ValidationException e) {
+                results[i] = new BookingBatchResultDto(i, HttpStatus.BAD_REQUEST.value(), null, e.getMessage());
+            }
+        }
+
+        List<Booking> saved = repository.saveAll(accepted);
+        for (int j = 0; j < saved.size(); j++) {
+            Booking booking = saved.get(j);
+            int i = acceptedIndexes.get(j);
+            results[i] = new BookingBatchResultDto(i, HttpStatus.CREATED.value(),
+                    BookingMapper.toBookingFullDto(booking, booker, items.get(booking.getItemId())), null);
+        }
+        log.info("Из пакета от пользователя (id={}) создано броней: {}", bookerId, saved.size());
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Подтверждённые брони вещей пакета, пересекающиеся с периодом от самого раннего начала
+     * до самого позднего конца заявок.
+     */
+    private Map<Long, List<Booking>> findApprovedOverlaps(Set<Long> itemIds, List<BookingDto> bookingDtos) {
+        if (bookingDtos.isEmpty()) {
+            return Map.of();
+        }
+        LocalDateTime start = bookingDtos.stream()
+                .map(BookingDto::getStart)
+                .min(Comparator.naturalOrder())
+                .get();
+        LocalDateTime end = bookingDtos.stream()
+                .map(BookingDto::getEnd)
+                .max(Comparator.naturalOrder())
+                .get();
+        return repository.findApprovedOverlaps(itemIds, start, end)
+                .stream()
+                .collect(Collectors.groupingBy(Booking::getItemId));
+    }
+
+    /**
+     * Подтверждение проверяет доступность вещи и пересечение с подтверждёнными бронями. Отклонение от них
+     * не зависит: владелец может отклонить ожидающую бронь, даже если вещь уже недоступна.
+     */
     @Transactional
     @Override
     public Optional<BookingFullDto> updateBooking(Long id, Long ownerId, Boolean approved) {
         log.info("Изменение статуса брони (id={}) от пользователя (id={}) на {}",
                 id, ownerId, approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        validateUser(ownerId);
+        userLookup.getUser(ownerId);
         Booking booking = validateBooking(id, ownerId, null);
         if (booking.getStatus() != BookingStatus.WAITING) {
             throw new ValidationException(String.format(
                     "Статус брони отличен от %s", BookingStatus.WAITING));
         }
-        User booker = validateUser(booking.getBookerId());
-        Item item = validateItem(BookingMapper.toBookingDto(booking), booking.getBookerId());
+        User booker = userLookup.getUser(booking.getBookerId());
+        Item item = approved
+                ? validateItem(BookingMapper.toBookingDto(booking), booking.getBookerId())
+                : itemRepository.findById(booking.getItemId()).get();
         booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
-        return Optional.of(BookingMapper.toBookingFullDto(repository.save(booking), booker, item));
+        Booking updatedBooking = repository.saveAndFlush(booking);
+        if (approved) {
+            availabilityIndex.approve(updatedBooking);
+        }
+        return Optional.of(BookingMapper.toBookingFullDto(updatedBooking, booker, item));
+    }
+
+    /**
+     * Решения пакета проверяются теми же правилами, что и отдельное решение в {@link #updateBooking}, а брони,
+     * вещи и авторы броней загружаются одним запросом на весь пакет. Подтверждаемые брони проверяются
+     * на пересечение и с уже подтверждёнными бронями, и с подтверждениями, принятыми раньше в том же пакете.
+     * Принятые решения применяются двумя групповыми обновлениями; если к этому моменту другой запрос изменил
+     * статус какой-то из броней, весь пакет откатывается.
+     */
+    @Transactional
+    @Override
+    public List<BookingBatchResultDto> decideBookings(List<BookingDecisionDto> decisions, long ownerId) {
+        log.info("Пакет из {} решений по броням от пользователя (id={})", decisions.size(), ownerId);
+        userLookup.getUser(ownerId);
+        Set<Long> bookingIds = decisions.stream()
+                .map(BookingDecisionDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Booking> bookings = repository.findAllById(bookingIds)
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<Long, Item> items = itemRepository.findAllById(bookings.values().stream()
+                        .map(Booking::getItemId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        Map<Long, User> bookers = userLookup.findAllById(bookings.values().stream()
+                        .map(Booking::getBookerId)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<BookingDto> approvals = decisions.stream()
+                .filter(decision -> Boolean.TRUE.equals(decision.getApproved()))
+                .map(decision -> bookings.get(decision.getBookingId()))
+                .filter(Objects::nonNull)
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList());
+        Map<Long, List<Booking>> approved = findApprovedOverlaps(
+                approvals.stream().map(BookingDto::getItemId).collect(Collectors.toSet()), approvals);
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[decisions.size()];
+        Set<Long> decided = new HashSet<>();
+        Map<Long, List<Booking>> approvedInBatch = new HashMap<>();
+        List<Long> approveIds = new ArrayList<>();
+        List<Long> rejectIds = new ArrayList<>();
+        for (int i = 0; i < decisions.size(); i++) {
+            BookingDecisionDto decision = decisions.get(i);
+            Long id = decision.getBookingId();
+            try {
+                if (id == null || decision.getApproved() == null) {
+                    throw new ValidationException("Не указаны бронь или решение по ней");
+                } else if (!decided.add(id)) {
+                    throw new ValidationException(String.format(
+                            "Решение по брони (id = %s) уже есть в пакете", id));
+                }
+                Booking booking = bookings.get(id);
+                if (booking == null) {
+                    throw new NotFoundException(String.format("Бронь (id = %s) не найдена", id));
+                }
+                Item item = items.get(booking.getItemId());
+                if (!item.getOwner().equals(ownerId)) {
+                    throw new NotFoundException(String.format(
+                            "Пользователь (id = %s) не является владельцем вещи (id = %s)",
+                            ownerId, booking.getItemId()));
+                } else if (booking.getStatus() != BookingStatus.WAITING) {
+                    throw new ValidationException(String.format(
+                            "Статус брони отличен от %s", BookingStatus.WAITING));
+                }
+                if (decision.getApproved()) {
+                    BookingDto bookingDto = BookingMapper.toBookingDto(booking);
+                    List<Booking> itemApprovals = approvedInBatch.computeIfAbsent(
+                            booking.getItemId(), itemId -> new ArrayList<>());
+                    validateItem(item, bookingDto, booking.getBookerId(),
+                            () -> overlaps(approved.get(booking.getItemId()), bookingDto)
+                                    || overlaps(itemApprovals, bookingDto));
+                    itemApprovals.add(booking);
+                    approveIds.add(id);
+                } else {
+                    rejectIds.add(id);
+                }
+            } catch (NotFoundException e) {
+                results[i] = new BookingBatchResultDto(i, HttpStatus.NOT_FOUND.value(), null, e.getMessage());
+            } catch (ValidationException e) {
+                results[i] = new BookingBatchResultDto(i, HttpStatus.BAD_REQUEST.value(), null, e.getMessage());
+            }
+        }
+
+        int updated = 0;
+        if (!approveIds.isEmpty()) {
+            updated += repository.updateWaitingStatus(approveIds, BookingStatus.APPROVED);
+        }
+        if (!rejectIds.isEmpty()) {
+            updated += repository.updateWaitingStatus(rejectIds, BookingStatus.REJECTED);
+        }
+        if (updated != approveIds.size() + rejectIds.size()) {
+            throw new ConflictException("Статус части броней изменился во время обработки пакета, повторите запрос");
+        }
+        for (int i = 0; i < decisions.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            Booking booking = bookings.get(decisions.get(i).getBookingId());
+            booking.setStatus(decisions.get(i).getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+            if (decisions.get(i).getApproved()) {
+                availabilityIndex.approve(booking);
+            }
+            results[i] = new BookingBatchResultDto(i, HttpStatus.OK.value(), BookingMapper.toBookingFullDto(
+                    booking, bookers.get(booking.getBookerId()), items.get(booking.getItemId())), null);
+        }
+        log.info("Решения пользователя (id={}): подтверждено {}, отклонено {}",
+                ownerId, approveIds.size(), rejectIds.size());
+        return Arrays.asList(results);
     }
 
     @Override
     public Collection<BookingFullDto> findUserBookings(long bookerId, String state, int from, int size) {
         log.info("Поиск бронирований от пользователя (id={}) для state = {}", bookerId, state);
-        User booker = validateUser(bookerId);
-        int page = from / size;
-        if (state.equals(BookingState.ALL.name())) {
-            return repository.findAllByBookerId(bookerId, PageRequest.of(page, size,
-                    Sort.by(Sort.Direction.DESC, "start")))
-                    .stream()
-                    .map(booking -> BookingMapper.toBookingFullDto(
-                            booking, booker, itemRepository.findById(booking.getItemId()).get()))
-                    .collect(Collectors.toList());
-        } else if (state.equals(BookingState.CURRENT.name())) {
-            return repository.findAllByBookerIdAndStartBeforeAndEndAfter(
-                    bookerId, LocalDateTime.now(), LocalDateTime.now(), PageRequest.of(page, size,
-                            Sort.by(Sort.Direction.DESC, "start")))
-                    .stream()
-                    .map(booking -> BookingMapper.toBookingFullDto(booking, booker,
-                            itemRepository.findById(booking.getItemId()).get()))
-                    .collect(Collectors.toList());
-        } else if (state.equals(BookingState.PAST.name())) {
-            return repository.findAllByBookerIdAndEndBefore(
-                    bookerId, LocalDateTime.now(), PageRequest.of(page, size,
-                            Sort.by(Sort.Direction.DESC, "start")))
-                    .stream()
-                    .map(booking -> BookingMapper.toBookingFullDto(booking, booker,
-                            itemRepository.findById(booking.getItemId()).get()))
-                    .collect(Collectors.toList());
-        } else if (state.equals(BookingState.FUTURE.name())) {
-            return repository.findAllByBookerIdAndStartAfter(
-                    bookerId, LocalDateTime.now(), PageRequest.of(page, size,
-                            Sort.by(Sort.Direction.DESC, "start")))
-                    .stream()
-                    .map(booking -> BookingMapper.toBookingFullDto(booking, booker,
-                            itemRepository.findById(booking.getItemId()).get()))
-                    .collect(Collectors.toList());
-        } else if (state.equals(BookingState.WAITING.name())) {
-            return repository.findAllByBookerIdAndStatus(
-                    bookerId, BookingStatus.WAITING, PageRequest.of(page, size,
-                            Sort.by(Sort.Direction.DESC, "start")))
-                    .stream()
-                    .map(booking -> BookingMapper.toBookingFullDto(booking, booker,
-                            itemRepository.findById(booking.getItemId()).get()))
-                    .collect(Collectors.toList());
-        } else if (state.equals(BookingState.REJECTED.name())) {
-            return repository.findAllByBookerIdAndStatus(
-                    bookerId, BookingStatus.REJECTED, PageRequest.of(page, size,
-                            Sort.by(Sort.Direction.DESC, "start")))
-                    .stream()
-                    .map(booking -> BookingMapper.toBookingFullDto(booking, booker,
-                            itemRepository.findById(booking.getItemId()).get()))
-                    .collect(Collectors.toList());
-        } else {
-            throw new ValidationException(String.format("Unknown state: %s", state));
+        User booker = userLookup.getUser(bookerId);
+        BookingState bookingState = parseState(state);
+        PageRequest pageRequest = PageRequest.of(from / size, size, Sort.by(Sort.Direction.DESC, "start", "id"));
+        LocalDateTime now = LocalDateTime.now();
+        Slice<Booking> bookings;
+        switch (bookingState) {
+            case CURRENT:
+                bookings = repository.findAllByBookerIdAndStartBeforeAndEndAfter(bookerId, now, now, pageRequest);
+                break;
+            case PAST:
+                bookings = repository.findAllByBookerIdAndEndBefore(bookerId, now, pageRequest);
+                break;
+            case FUTURE:
+                bookings = repository.findAllByBookerIdAndStartAfter(bookerId, now, pageRequest);
+                break;
+            case WAITING:
+                bookings = repository.findAllByBookerIdAndStatus(bookerId, BookingStatus.WAITING, pageRequest);
+                break;
+            case REJECTED:
+                bookings = repository.findAllByBookerIdAndStatus(bookerId, BookingStatus.REJECTED, pageRequest);
+                break;
+            default:
+                bookings = repository.findAllByBookerId(bookerId, pageRequest);
         }
+        return toBookingFullDtos(bookings.getContent(), Map.of(bookerId, booker));
     }
 
     @Override
     public Collection<BookingFullDto> findOwnerBookings(long ownerId, String state, int from, int size) {
         log.info("Поиск бронирований вещей пользователя (id={}) для state = {}", ownerId, state);
-        validateUser(ownerId);
+        userLookup.getUser(ownerId);
+        BookingState bookingState = parseState(state);
+        PageRequest pageRequest = PageRequest.of(from / size, size);
+        LocalDateTime now = LocalDateTime.now();
+        Slice<Booking> page;
+        switch (bookingState) {
+            case CURRENT:
+                page = repository.findAllByOwnerIdAndStartBeforeAndEndAfter(ownerId, now, now, pageRequest);
+                break;
+            case PAST:
+                page = repository.findAllByOwnerIdAndEndBefore(ownerId, now, pageRequest);
+                break;
+            case FUTURE:
+                page = repository.findAllByOwnerIdAndStartAfter(ownerId, now, pageRequest);
+                break;
+            case WAITING:
+                page = repository.findAllByOwnerIdAndStatus(ownerId, BookingStatus.WAITING, pageRequest);
+                break;
+            case REJECTED:
+                page = repository.findAllByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, pageRequest);
+                break;
+            default:
+                page = repository.findAllByOwnerId(ownerId, pageRequest);
+        }
+        return toBookingFullDtos(page.getContent());
+    }
+
+    @Override
+    public Collection<BookingFullDto> findUserBookings(long bookerId, String state, Cursor cursor, int size) {
+        log.info("Поиск бронирований от пользователя (id={}) для state = {} после {}",
+                bookerId, state, cursor.encode());
+        User booker = userLookup.getUser(bookerId);
+        BookingState bookingState = parseState(state);
+        PageRequest pageRequest = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = cursor.getDate();
+        long id = cursor.getId();
+        List<Booking> bookings;
+        switch (bookingState) {
+            case CURRENT:
+                bookings = repository.findNextByBookerIdAndCurrent(bookerId, now, start, id, pageRequest);
+                break;
+            case PAST:
+                bookings = repository.findNextByBookerIdAndEndBefore(bookerId, now, start, id, pageRequest);
+                break;
+            case FUTURE:
+                bookings = repository.findNextByBookerIdAndStartAfter(bookerId, now, start, id, pageRequest);
+                break;
+            case WAITING:
+                bookings = repository.findNextByBookerIdAndStatus(
+                        bookerId, BookingStatus.WAITING, start, id, pageRequest);
+                break;
+            case REJECTED:
+                bookings = repository.findNextByBookerIdAndStatus(
+                        bookerId, BookingStatus.REJECTED, start, id, pageRequest);
+                break;
+            default:
+                bookings = repository.findNextByBookerId(bookerId, start, id, pageRequest);
+        }
+        return toBookingFullDtos(bookings, Map.of(bookerId, booker));
+    }
+
+    @Override
+    public Collection<BookingFullDto> findOwnerBookings(long ownerId, String state, Cursor cursor, int size) {
+        log.info("Поиск бронирований вещей пользователя (id={}) для state = {} после {}",
+                ownerId, state, cursor.encode());
+        userLookup.getUser(ownerId);
+        BookingState bookingState = parseState(state);
+        PageRequest pageRequest = PageRequest.of(0, size);
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = cursor.getDate();
+        long id = cursor.getId();
+        List<Booking> bookings;
+        switch (bookingState) {
+            case CURRENT:
+                bookings = repository.findNextByOwnerIdAndCurrent(ownerId, now, start, id, pageRequest);
+                break;
+            case PAST:
+                bookings = repository.findNextByOwnerIdAndEndBefore(ownerId, now, start, id, pageRequest);
+                break;
+            case FUTURE:
+                bookings = repository.findNextByOwnerIdAndStartAfter(ownerId, now, start, id, pageRequest);
+                break;
+            case WAITING:
+                bookings = repository.findNextByOwnerIdAndStatus(
+                        ownerId, BookingStatus.WAITING, start, id, pageRequest);
+                break;
+            case REJECTED:
+                bookings = repository.findNextByOwnerIdAndStatus(
+                        ownerId, BookingStatus.REJECTED, start, id, pageRequest);
+                break;
+            default:
+                bookings = repository.findNextByOwnerId(ownerId, start, id, pageRequest);
+        }
+        return toBookingFullDtos(bookings);
+    }
+
+    private static BookingState parseState(String state) {
         try {
-            BookingState bookingState = BookingState.valueOf(state);
-        } catch (Exception e) {
+            return BookingState.valueOf(state);
+        } catch (IllegalArgumentException e) {
             throw new ValidationException(String.format("Unknown state: %s", state));
         }
-        int page = from / size;
-        return repository.findAllByOwnerId(ownerId, state, LocalDateTime.now(),
-                PageRequest.of(page, size))
+    }
+
+    private List<BookingFullDto> toBookingFullDtos(List<Booking> bookings) {
+        Set<Long> bookerIds = bookings.stream()
+                .map(Booking::getBookerId)
+                .collect(Collectors.toSet());
+        Map<Long, User> bookers = userLookup.findAllById(bookerIds)
+                .stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return toBookingFullDtos(bookings, bookers);
+    }
+
+    private List<BookingFullDto> toBookingFullDtos(List<Booking> bookings, Map<Long, User> bookers) {
+        Set<Long> itemIds = bookings.stream()
+                .map(Booking::getItemId)
+                .collect(Collectors.toSet());
+        Map<Long, Item> items = itemRepository.findAllById(itemIds)
                 .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return bookings.stream()
                 .map(booking -> BookingMapper.toBookingFullDto(booking,
-                        userRepository.findById(booking.getBookerId()).get(),
-                        itemRepository.findById(booking.getItemId()).get()))
+                        bookers.get(booking.getBookerId()),
+                        items.get(booking.getItemId())))
                 .collect(Collectors.toList());
     }
 
+    private static boolean overlaps(Collection<Booking> bookings, BookingDto bookingDto) {
+        return bookings != null && bookings.stream()
+                .anyMatch(booking -> booking.getStart().isBefore(bookingDto.getEnd())
+                        && booking.getEnd().isAfter(bookingDto.getStart()));
+    }
+
     @Override
     public Optional<BookingFullDto> getBooking(long id, long userId) {
         log.info("Запрос брони (id={}) от пользователя (id={})", id, userId);
         Booking booking = validateBooking(id, userId, userId);
         Item item = validateItem(BookingMapper.toBookingDto(booking), null);
-        User booker = validateUser(booking.getBookerId());
+        User booker = userLookup.getUser(booking.getBookerId());
         return Optional.of(BookingMapper.toBookingFullDto(booking, booker, item));
     }
+
+    /**
+     * Окно календаря начинается не раньше текущего момента: прошедшие даты забронировать нельзя.
+     * Свободные периоды у недоступной для аренды вещи не возвращаются.
+     */
+    @Override
+    public ItemAvailabilityDto getItemAvailability(long itemId, long userId, LocalDateTime from, LocalDateTime to) {
+        log.info("Календарь вещи (id={}) с {} по {} для пользователя (id={})", itemId, from, to, userId);
+        userLookup.getUser(userId);
+        Item item = itemRepository.findById(itemId).orElseThrow(() -> new NotFoundException(String.format(
+                "Вещь (id = %s) не найдена", itemId)));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = from.isBefore(now) ? now : from;
+        if (!start.isBefore(to)) {
+            throw new ValidationException(String.format(
+                    "Конец окна календаря (%s) должен быть позже его начала (%s)", to, start));
+        }
+        List<IntervalDto> busy = availabilityIndex.findBusy(itemId, start, to);
+        List<IntervalDto> free = new ArrayList<>();
+        if (item.getAvailable()) {
+            LocalDateTime freeStart = start;
+            for (IntervalDto period : busy) {
+                if (period.getStart().isAfter(freeStart)) {
+                    free.add(new IntervalDto(freeStart, period.getStart()));
+                }
+                freeStart = period.getEnd();
+            }
+            if (freeStart.isBefore(to)) {
+                free.add(new IntervalDto(freeStart, to));
+            }
+        }
+        return new ItemAvailabilityDto(itemId, start, to, item.getAvailable(), busy, free);
+    }
 }
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.booking;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.IntervalDto;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Подтверждённые брони вещей в памяти сервера: для каждой вещи — упорядоченная по началу карта
+ * периодов [start, end). Подтверждённые брони одной вещи не пересекаются, поэтому занятые периоды
+ * внутри окна находятся одним спуском по карте. Календарь вещи загружается из базы при первом запросе,
+ * число вещей в памяти и срок жизни календаря задаёт свойство {@code shareit.availability.spec}.
+ * Срок жизни ограничивает устаревание, если бронь подтвердили на другом экземпляре сервера.
+ */
+@Component
+public class ItemAvailabilityIndex {
+    private final BookingRepository repository;
+    private final Cache<Long, NavigableMap<LocalDateTime, LocalDateTime>> calendars;
+
+    public ItemAvailabilityIndex(BookingRepository repository,
+                                 @Value("${shareit.availability.spec:maximumSize=10000,expireAfterWrite=10m}")
+                                 String spec) {
+        this.repository = repository;
+        this.calendars = Caffeine.from(spec).build();
+    }
+
+    /**
+     * Возвращает занятые периоды вещи в окне [from, to), обрезанные по границам окна.
+     * Смежные брони объединяются в один период.
+     */
+    public List<IntervalDto> findBusy(long itemId, LocalDateTime from, LocalDateTime to) {
+        NavigableMap<LocalDateTime, LocalDateTime> calendar = calendars.get(itemId, this::load);
+        List<IntervalDto> busy = new ArrayList<>();
+        Map.Entry<LocalDateTime, LocalDateTime> first = calendar.floorEntry(from);
+        LocalDateTime fromKey = first != null && first.getValue().isAfter(from) ? first.getKey() : from;
+        for (Map.Entry<LocalDateTime, LocalDateTime> period : calendar.subMap(fromKey, true, to, false).entrySet()) {
+            if (!period.getValue().isAfter(from)) {
+                continue;
+            }
+            LocalDateTime start = period.getKey().isBefore(from) ? from : period.getKey();
+            LocalDateTime end = period.getValue().isAfter(to) ? to : period.getValue();
+            IntervalDto last = busy.isEmpty() ? null : busy.get(busy.size() - 1);
+            if (last != null && !last.getEnd().isBefore(start)) {
+                last.setEnd(end);
+            } else {
+                busy.add(new IntervalDto(start, end));
+            }
+        }
+        return busy;
+    }
+
+    /**
+     * Сбрасывает календарь вещи после фиксации подтверждения брони: следующий запрос загрузит его
+     * из базы вместе с новой бронью. Загрузка, начатая до фиксации, завершается раньше сброса,
+     * поэтому календарь без новой брони в памяти не остаётся.
+     */
+    public void approve(Booking booking) {
+        long itemId = booking.getItemId();
+        AfterCommit.run(() -> calendars.invalidate(itemId));
+    }
+
+    private NavigableMap<LocalDateTime, LocalDateTime> load(long itemId) {
+        NavigableMap<LocalDateTime, LocalDateTime> calendar = new TreeMap<>();
+        for (Booking booking : repository.findAllByItemIdAndStatusAndEndAfter(
+                itemId, BookingStatus.APPROVED, LocalDateTime.now())) {
+            calendar.put(booking.getStart(), booking.getEnd());
+        }
+        return Collections.unmodifiableNavigableMap(calendar);
+    }
+}
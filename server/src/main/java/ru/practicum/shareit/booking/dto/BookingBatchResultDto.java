@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookingBatchResultDto {
+    private Integer index; // номер заявки в пакете, начиная с нуля
+    private Integer status; // HTTP-статус, с которым завершилась бы отдельная заявка
+    private BookingFullDto booking; // созданная бронь, если заявка принята
+    private String error; // причина отказа, если заявка отклонена
+}
@@ -0,0 +1,11 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class BookingDecisionDto {
+    private Long bookingId; // бронь, по которой принято решение
+    private Boolean approved; // подтвердить или отклонить бронь
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+@Data
+@AllArgsConstructor
+public class IntervalDto {
+    private LocalDateTime start; // начало периода
+    private LocalDateTime end; // конец периода, не включая его
+}
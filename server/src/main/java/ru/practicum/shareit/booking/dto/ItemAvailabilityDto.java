@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+public class ItemAvailabilityDto {
+    private Long itemId; // вещь, для которой построен календарь
+    private LocalDateTime from; // начало окна календаря
+    private LocalDateTime to; // конец окна календаря
+    private Boolean available; // доступна ли вещь для аренды
+    private List<IntervalDto> busy; // периоды, занятые подтверждёнными бронями
+    private List<IntervalDto> free; // свободные периоды
+}
@@ -0,0 +1,63 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.metrics.cache.CacheMeterBinderProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Кеши сервера двухуровневые: ближний уровень в памяти каждого экземпляра и общий уровень,
+ * который выбирается свойством {@code shareit.cache.shared}: none (только ближний уровень),
+ * memory (в памяти процесса, для тестов) или redis. Статистика ближнего уровня публикуется в метриках cache.*.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String USERS = "users";
+    public static final String ITEMS = "items";
+
+    @Bean
+    public CacheManager cacheManager(@Value("${shareit.cache.names}") List<String> cacheNames,
+                                     @Value("${shareit.cache.near-spec}") String nearSpec,
+                                     ObjectProvider<SharedCacheTier> sharedTier) {
+        return new TwoLevelCacheManager(cacheNames, CaffeineSpec.parse(nearSpec), sharedTier.getIfAvailable());
+    }
+
+    @Bean
+    public CacheMeterBinderProvider<TwoLevelCache> twoLevelCacheMeterBinderProvider() {
+        return (cache, tags) -> new CaffeineCacheMetrics<>(cache.getNearCache(), cache.getName(), tags);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.cache.shared", havingValue = "memory")
+    public SharedCacheTier inMemorySharedCacheTier() {
+        return new InMemorySharedCacheTier();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.cache.shared", havingValue = "redis")
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        return container;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "shareit.cache.shared", havingValue = "redis")
+    public SharedCacheTier redisSharedCacheTier(RedisConnectionFactory connectionFactory,
+                                                RedisMessageListenerContainer cacheInvalidationListenerContainer,
+                                                @Value("${shareit.cache.shared-ttl}") Duration ttl) {
+        return new RedisSharedCacheTier(connectionFactory, cacheInvalidationListenerContainer, ttl);
+    }
+}
@@ -0,0 +1,23 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * Ответы на GET-запросы получают ETag по содержимому. Если клиент присылает совпадающий
+ * If-None-Match, тело не передаётся и возвращается 304. Потоковые ответы отключают
+ * буферизацию через {@link ShallowEtagHeaderFilter#disableContentCaching}.
+ */
+@Configuration
+public class HttpCacheConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> shallowEtagHeaderFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/bookings/*", "/items/*", "/requests/*", "/users/*");
+        return registration;
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Общий уровень кеша в памяти одного процесса. Заменяет Redis в тестах и при локальном запуске:
+ * несколько менеджеров кешей с одним таким уровнем ведут себя как несколько экземпляров сервера.
+ */
+public class InMemorySharedCacheTier implements SharedCacheTier {
+    private final Map<String, Map<String, Object>> caches = new ConcurrentHashMap<>();
+    private final List<BiConsumer<String, String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public Object get(String cacheName, String key) {
+        return cache(cacheName).get(key);
+    }
+
+    @Override
+    public void put(String cacheName, String key, Object value) {
+        cache(cacheName).put(key, value);
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        cache(cacheName).remove(key);
+        listeners.forEach(listener -> listener.accept(cacheName, key));
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        cache(cacheName).clear();
+        listeners.forEach(listener -> listener.accept(cacheName, null));
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, String> invalidationListener) {
+        listeners.add(invalidationListener);
+    }
+
+    private Map<String, Object> cache(String cacheName) {
+        return caches.computeIfAbsent(cacheName, name -> new ConcurrentHashMap<>());
+    }
+}
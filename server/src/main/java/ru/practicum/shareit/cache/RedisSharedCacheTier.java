@@ -0,0 +1,95 @@
+package ru.practicum.shareit.cache;
+
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BiConsumer;
+
+/**
+ * Общий уровень кеша в Redis. Значения хранятся в JSON с ограниченным сроком жизни,
+ * оповещения об удалении рассылаются через канал публикации и подписки.
+ */
+public class RedisSharedCacheTier implements SharedCacheTier, MessageListener {
+    static final String KEY_PREFIX = "shareit:cache:";
+    static final String CHANNEL = "shareit:cache:invalidation";
+    private static final String SEPARATOR = "::";
+
+    private final RedisTemplate<String, Object> template;
+    private final StringRedisTemplate messages;
+    private final Duration ttl;
+    private final List<BiConsumer<String, String>> listeners = new CopyOnWriteArrayList<>();
+
+    public RedisSharedCacheTier(RedisConnectionFactory connectionFactory,
+                                RedisMessageListenerContainer listenerContainer,
+                                Duration ttl) {
+        this.template = new RedisTemplate<>();
+        this.template.setConnectionFactory(connectionFactory);
+        this.template.setKeySerializer(RedisSerializer.string());
+        this.template.setValueSerializer(RedisSerializer.json());
+        this.template.afterPropertiesSet();
+        this.messages = new StringRedisTemplate(connectionFactory);
+        this.ttl = ttl;
+        listenerContainer.addMessageListener(this, new ChannelTopic(CHANNEL));
+    }
+
+    @Override
+    public Object get(String cacheName, String key) {
+        return template.opsForValue().get(redisKey(cacheName, key));
+    }
+
+    @Override
+    public void put(String cacheName, String key, Object value) {
+        template.opsForValue().set(redisKey(cacheName, key), value, ttl);
+    }
+
+    @Override
+    public void evict(String cacheName, String key) {
+        template.delete(redisKey(cacheName, key));
+        messages.convertAndSend(CHANNEL, cacheName + SEPARATOR + key);
+    }
+
+    @Override
+    public void clear(String cacheName) {
+        List<String> keys = new ArrayList<>();
+        ScanOptions options = ScanOptions.scanOptions().match(redisKey(cacheName, "*")).count(500).build();
+        try (Cursor<String> cursor = template.scan(options)) {
+            cursor.forEachRemaining(keys::add);
+        }
+        template.delete(keys);
+        messages.convertAndSend(CHANNEL, cacheName + SEPARATOR);
+    }
+
+    @Override
+    public void subscribe(BiConsumer<String, String> invalidationListener) {
+        listeners.add(invalidationListener);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String body = new String(message.getBody(), StandardCharsets.UTF_8);
+        int separator = body.indexOf(SEPARATOR);
+        if (separator < 0) {
+            return;
+        }
+        String cacheName = body.substring(0, separator);
+        String key = body.substring(separator + SEPARATOR.length());
+        listeners.forEach(listener -> listener.accept(cacheName, key.isEmpty() ? null : key));
+    }
+
+    private static String redisKey(String cacheName, String key) {
+        return KEY_PREFIX + cacheName + SEPARATOR + key;
+    }
+}
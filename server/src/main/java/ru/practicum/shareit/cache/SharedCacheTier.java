@@ -0,0 +1,25 @@
+package ru.practicum.shareit.cache;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Общий для всех экземпляров сервера уровень кеша. Удаление значения рассылается
+ * остальным экземплярам, чтобы они сбросили свои ближние копии.
+ */
+public interface SharedCacheTier {
+    Object get(String cacheName, String key);
+
+    void put(String cacheName, String key, Object value);
+
+    /**
+     * Удаляет значение и оповещает подписчиков.
+     */
+    void evict(String cacheName, String key);
+
+    /**
+     * Удаляет все значения кеша и оповещает подписчиков, ключ в оповещении при этом равен null.
+     */
+    void clear(String cacheName);
+
+    void subscribe(BiConsumer<String, String> invalidationListener);
+}
@@ -0,0 +1,125 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Кеш из двух уровней: ближний в памяти экземпляра сервера и общий для всех экземпляров.
+ * Значение сначала ищется в ближнем уровне, затем в общем; найденное в общем копируется в ближний.
+ * Ошибки общего уровня не прерывают запрос: значение просто читается из базы данных.
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+    private final String name;
+    private final Cache<String, Object> near;
+    private final SharedCacheTier shared;
+
+    public TwoLevelCache(String name, Cache<String, Object> near, @Nullable SharedCacheTier shared) {
+        super(false);
+        this.name = name;
+        this.near = near;
+        this.shared = shared;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return near;
+    }
+
+    public Cache<String, Object> getNearCache() {
+        return near;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String id = key.toString();
+        Object value = near.getIfPresent(id);
+        if (value == null && shared != null) {
+            try {
+                value = shared.get(name, id);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось прочитать значение {} кеша {} из общего уровня: {}", id, name, e.getMessage());
+            }
+            if (value != null) {
+                near.put(id, value);
+            }
+        }
+        return value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper cached = get(key);
+        if (cached != null) {
+            return (T) cached.get();
+        }
+        T value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        put(key, value);
+        return value;
+    }
+
+    @Override
+    public void put(Object key, @Nullable Object value) {
+        String id = key.toString();
+        Object storeValue = toStoreValue(value);
+        near.put(id, storeValue);
+        if (shared != null) {
+            try {
+                shared.put(name, id, storeValue);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось записать значение {} кеша {} в общий уровень: {}", id, name, e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public void evict(Object key) {
+        String id = key.toString();
+        near.invalidate(id);
+        if (shared != null) {
+            try {
+                shared.evict(name, id);
+            } catch (RuntimeException e) {
+                log.error("Не удалось удалить значение {} кеша {} из общего уровня", id, name, e);
+            }
+        }
+    }
+
+    @Override
+    public void clear() {
+        near.invalidateAll();
+        if (shared != null) {
+            try {
+                shared.clear(name);
+            } catch (RuntimeException e) {
+                log.error("Не удалось очистить кеш {} в общем уровне", name, e);
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает ближнюю копию по оповещению от другого экземпляра; ключ null сбрасывает весь кеш.
+     */
+    void invalidateNear(@Nullable String key) {
+        if (key == null) {
+            near.invalidateAll();
+        } else {
+            near.invalidate(key);
+        }
+    }
+}
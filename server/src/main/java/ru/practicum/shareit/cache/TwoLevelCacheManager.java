@@ -0,0 +1,49 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.springframework.cache.transaction.AbstractTransactionSupportingCacheManager;
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Менеджер двухуровневых кешей с заранее заданными именами. Запись и удаление внутри транзакции
+ * применяются после её фиксации, поэтому другие экземпляры не увидят незафиксированных данных.
+ */
+public class TwoLevelCacheManager extends AbstractTransactionSupportingCacheManager {
+    private final Collection<String> cacheNames;
+    private final CaffeineSpec nearSpec;
+    private final SharedCacheTier sharedTier;
+    private final Map<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(Collection<String> cacheNames, CaffeineSpec nearSpec,
+                                @Nullable SharedCacheTier sharedTier) {
+        this.cacheNames = List.copyOf(cacheNames);
+        this.nearSpec = nearSpec;
+        this.sharedTier = sharedTier;
+        setTransactionAware(true);
+        if (sharedTier != null) {
+            sharedTier.subscribe(this::invalidateNear);
+        }
+    }
+
+    @Override
+    protected Collection<TwoLevelCache> loadCaches() {
+        return cacheNames.stream()
+                .map(name -> caches.computeIfAbsent(name, key ->
+                        new TwoLevelCache(key, Caffeine.from(nearSpec).build(), sharedTier)))
+                .collect(Collectors.toList());
+    }
+
+    private void invalidateNear(String cacheName, @Nullable String key) {
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.invalidateNear(key);
+        }
+    }
+}
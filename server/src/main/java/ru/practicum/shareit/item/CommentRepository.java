@@ -1,10 +1,17 @@
 package ru.practicum.shareit.item;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentWithAuthor;
 import ru.practicum.shareit.item.model.Comment;
 
 import java.util.Collection;
+import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-    Collection<Comment> findAllByItemIdOrderByCreatedDesc(long itemId);
+    @Query(" select c as comment, u.name as authorName " +
+            "  from Comment c join User u on u.id = c.authorId " +
+            " where c.itemId in ?1 " +
+            " order by c.created desc")
+    List<CommentWithAuthor> findAllWithAuthorByItemIdIn(Collection<Long> itemIds);
 }
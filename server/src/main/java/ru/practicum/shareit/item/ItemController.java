@@ -1,25 +1,104 @@
 package ru.practicum.shareit.item;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.BookingService;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.exception.ErrorResponse;
+import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemFullDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.streaming.KeysetBatches;
 
+import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
 import java.util.Collection;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/items")
 public class ItemController {
+    static final int STREAMING_BATCH_SIZE = 100; // наибольшее число вещей, загружаемых одним запросом к базе
+
     private final ItemService service;
+    private final BookingService bookingService;
+    private final ObjectMapper mapper;
 
+    /**
+     * Страница больше одной порции отдаётся без ETag: вещи загружаются порциями по мере записи ответа,
+     * поэтому ни тело, ни его хеш целиком в памяти не собираются.
+     */
     @GetMapping
-    public Collection<ItemFullDto> findUserItems(@RequestHeader("X-Sharer-User-Id") long userId) {
-        return service.findUserItems(userId);
+    public ResponseEntity<Iterable<ItemFullDto>> findUserItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                               @RequestParam(defaultValue = "0") long fromId,
+                                                               @RequestParam(defaultValue = "20") int size,
+                                                               HttpServletRequest request) {
+        validateSize(size);
+        if (size <= STREAMING_BATCH_SIZE) {
+            return ResponseEntity.ok().body(service.findUserItems(userId, fromId, size));
+        }
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        return ResponseEntity.ok().body(userItems(userId, fromId, STREAMING_BATCH_SIZE, size).elements());
+    }
+
+    /**
+     * Параметр size задаёт число вещей, загружаемых одним запросом к базе, но не больше
+     * {@link #STREAMING_BATCH_SIZE}: поток отдаёт все вещи пользователя. Ошибка тоже отдаётся строкой NDJSON,
+     * потому что другой формат клиент не принимает.
+     */
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamUserItems(@RequestHeader("X-Sharer-User-Id") long userId,
+                                                                 @RequestParam(defaultValue = "100") int size,
+                                                                 HttpServletRequest request)
+            throws JsonProcessingException {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        if (size <= 0) {
+            byte[] error = mapper.writeValueAsBytes(new ErrorResponse(sizeError(size)));
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(outputStream -> {
+                        outputStream.write(error);
+                        outputStream.write('\n');
+                    });
+        }
+        int batchSize = Math.min(size, STREAMING_BATCH_SIZE);
+        StreamingResponseBody body = outputStream -> {
+            for (Collection<ItemFullDto> items : userItems(userId, 0, batchSize, Long.MAX_VALUE)) {
+                for (ItemFullDto item : items) {
+                    outputStream.write(mapper.writeValueAsBytes(item));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    private static void validateSize(int size) {
+        if (size <= 0) {
+            throw new ValidationException(sizeError(size));
+        }
+    }
+
+    private static String sizeError(int size) {
+        return String.format("Размер страницы (%d) должен быть положительным", size);
+    }
+
+    private KeysetBatches<ItemFullDto> userItems(long userId, long fromId, int batchSize, long limit) {
+        return new KeysetBatches<>((afterId, count) -> service.findUserItems(userId, afterId, count),
+                ItemFullDto::getId, fromId, batchSize, limit);
     }
 
     @PostMapping
@@ -43,6 +122,15 @@ public class ItemController {
                 .orElseGet(() -> new ResponseEntity<>(HttpStatus.NOT_FOUND));
     }
 
+    @GetMapping("/{id}/availability")
+    public ItemAvailabilityDto getItemAvailability(
+            @PathVariable long id,
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return bookingService.getItemAvailability(id, userId, from, to);
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Item> deleteItemById(@PathVariable long id,
                                                @RequestHeader("X-Sharer-User-Id") long userId) {
@@ -51,8 +139,14 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public Collection<Item> searchItems(@RequestParam(required = false) String text) {
-        return service.searchItems(text);
+    public Collection<Item> searchItems(@RequestParam(required = false) String text,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+                                        @RequestParam(required = false)
+                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+                                        @RequestParam(defaultValue = "0") int from,
+                                        @RequestParam(defaultValue = "20") int size) {
+        return service.searchItems(text, start, end, from, size);
     }
 
     @PostMapping("/{id}/comment")
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.item;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.CacheConfig;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Optional;
+
+/**
+ * Чтение вещей через кеш. Отсутствующие вещи не кешируются.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemLookup {
+    private final ItemRepository repository;
+
+    @Cacheable(cacheNames = CacheConfig.ITEMS, unless = "#result == null")
+    public Optional<Item> findItem(long itemId) {
+        return repository.findById(itemId);
+    }
+
+    /**
+     * Внутри транзакции удаление применяется после её фиксации.
+     */
+    @CacheEvict(CacheConfig.ITEMS)
+    public void evict(long itemId) {
+    }
+}
@@ -1,19 +1,55 @@
 package ru.practicum.shareit.item;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    Collection<Item> findByOwnerOrderById(long userId);
+    List<Item> findByOwnerAndIdGreaterThanOrderById(long userId, long fromId, Pageable pageable);
 
     @Query(" select i from Item i " +
             " where i.available = true" +
             "   and (upper(i.name) like upper(concat('%', ?1, '%')) or " +
-            "        upper(i.description) like upper(concat('%', ?1, '%')))")
-    Collection<Item> search(String text);
+            "        upper(i.description) like upper(concat('%', ?1, '%')))" +
+            " order by case when upper(i.name) like upper(concat(?1, '%')) then 0 " +
+            "               when upper(i.name) like upper(concat('%', ?1, '%')) then 1 " +
+            "               else 2 end, i.id")
+    List<Item> search(String text, Pageable pageable);
+
+    /**
+     * Поиск как в {@link #search}, но без вещей, подтверждённые брони которых пересекаются с периодом
+     * [start, end). Подзапрос not exists проверяет каждую найденную вещь по индексу
+     * ix_bookings_item_status_start, поэтому занятые вещи отсекаются в базе до постраничной выборки.
+     */
+    @Query(" select i from Item i " +
+            " where i.available = true" +
+            "   and (upper(i.name) like upper(concat('%', ?1, '%')) or " +
+            "        upper(i.description) like upper(concat('%', ?1, '%')))" +
+            "   and not exists (select b.id from Booking b " +
+            "                    where b.itemId = i.id " +
+            "                      and b.status = ru.practicum.shareit.booking.BookingStatus.APPROVED " +
+            "                      and b.start < ?3 " +
+            "                      and b.end > ?2)" +
+            " order by case when upper(i.name) like upper(concat(?1, '%')) then 0 " +
+            "               when upper(i.name) like upper(concat('%', ?1, '%')) then 1 " +
+            "               else 2 end, i.id")
+    List<Item> searchFree(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
 
     Collection<Item> findByRequestId(long requestId);
+
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+    @Query("select i from Item i")
+    Stream<Item> streamAll();
 }
@@ -5,11 +5,12 @@ import ru.practicum.shareit.item.dto.ItemFullDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.Optional;
 
 public interface ItemService {
-    Collection<ItemFullDto> findUserItems(long userId);
+    Collection<ItemFullDto> findUserItems(long userId, long fromId, int size);
 
     Item saveItem(ItemDto itemDto, long userId);
 
@@ -19,7 +20,7 @@ public interface ItemService {
 
     Optional<ItemFullDto> getItem(long id, long userId);
 
-    Collection<Item> searchItems(String text);
+    Collection<Item> searchItems(String text, LocalDateTime start, LocalDateTime end, int from, int size);
 
     Optional<CommentDto> addItemComment(long itemId, long userId, CommentDto commentDto);
 }
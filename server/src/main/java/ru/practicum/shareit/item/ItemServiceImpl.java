@@ -2,6 +2,7 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
@@ -14,13 +15,19 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemFullDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -29,31 +36,47 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ItemServiceImpl implements ItemService {
     private final ItemRepository repository;
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex searchIndex;
+    private final ItemLookup itemLookup;
 
     @Override
-    public Collection<ItemFullDto> findUserItems(long userId) {
-        log.info("Поиск всех вещей пользователя (id={})", userId);
-        return repository.findByOwnerOrderById(userId)
-                .stream()
-                .map(item -> ItemMapper.toItemFullDto(item,
-                        bookingRepository.findLastBooking(item.getId(), userId, LocalDateTime.now()),
-                        bookingRepository.findNextBooking(item.getId(), userId, LocalDateTime.now()),
-                        commentRepository.findAllByItemIdOrderByCreatedDesc(item.getId())
-                                .stream()
-                                .map(comment -> CommentMapper.toCommentDto(comment, validateUser(comment.getAuthorId()).getName()))
-                                .collect(Collectors.toList())))
-                .collect(Collectors.toList());
+    public Collection<ItemFullDto> findUserItems(long userId, long fromId, int size) {
+        log.info("Поиск вещей пользователя (id={}) начиная с id > {}", userId, fromId);
+        return toItemFullDtos(repository.findByOwnerAndIdGreaterThanOrderById(userId, fromId,
+                PageRequest.of(0, size)), userId);
     }
 
-    private User validateUser(long userId) {
-        Optional<User> user = userRepository.findById(userId);
-        if (!user.isPresent()) {
-            throw new NotFoundException(String.format("Пользователь (id = %s) не найден", userId));
+    private List<ItemFullDto> toItemFullDtos(Collection<Item> items, long userId) {
+        if (items.isEmpty()) {
+            return new ArrayList<>();
         }
-        return user.get();
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> itemIds = items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, Booking> lastBookings = new HashMap<>();
+        Map<Long, Booking> nextBookings = new HashMap<>();
+        for (Booking booking : bookingRepository.findLastAndNextBookings(itemIds, userId, now)) {
+            if (booking.getStart().isBefore(now)) {
+                lastBookings.put(booking.getItemId(), booking);
+            } else {
+                nextBookings.put(booking.getItemId(), booking);
+            }
+        }
+        Map<Long, List<CommentDto>> comments = commentRepository.findAllWithAuthorByItemIdIn(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getComment().getItemId(),
+                        Collectors.mapping(comment -> CommentMapper.toCommentDto(
+                                comment.getComment(), comment.getAuthorName()), Collectors.toList())));
+        return items.stream()
+                .map(item -> ItemMapper.toItemFullDto(item,
+                        Optional.ofNullable(lastBookings.get(item.getId())),
+                        Optional.ofNullable(nextBookings.get(item.getId())),
+                        comments.get(item.getId())))
+                .collect(Collectors.toList());
     }
 
     private Optional<Item> validateUserItem(long itemId, long userId) {
@@ -82,12 +105,13 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public Item saveItem(ItemDto itemDto, long userId) {
         log.info("Добавление вещи {} пользователем (id={})", itemDto.toString(), userId);
-        validateUser(userId);
+        userLookup.getUser(userId);
         if (itemDto.getAvailable() == null) {
             throw new ValidationException("Не передан статус вещи");
         }
-        Item item = ItemMapper.toItem(itemDto, userId);
-        return repository.save(item);
+        Item item = repository.save(ItemMapper.toItem(itemDto, userId));
+        searchIndex.update(item);
+        return item;
     }
 
     @Transactional
@@ -95,10 +119,12 @@ public class ItemServiceImpl implements ItemService {
     public Optional<Item> updateItem(long itemId, ItemDto itemDto, long userId) {
         log.info("Редактирование информации {} о вещи (id={}) пользователем (id={})",
                 itemDto.toString(), itemId, userId);
-        validateUser(userId);
+        userLookup.getUser(userId);
         Optional<Item> itemOld = validateUserItem(itemId, userId);
         Item item = ItemMapper.toItem(itemDto, itemOld.get());
         repository.save(item);
+        searchIndex.update(item);
+        itemLookup.evict(itemId);
         return Optional.of(item);
     }
 
@@ -106,10 +132,12 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public boolean deleteItem(long id, long userId) {
         log.info("Удаление вещи (id={}) пользователем (id={})", id, userId);
-        validateUser(userId);
+        userLookup.getUser(userId);
         Optional<Item> item = repository.findById(id);
         if (item.isPresent()) {
             repository.deleteById(id);
+            searchIndex.remove(id);
+            itemLookup.evict(id);
             return true;
         } else {
             return false;
@@ -119,24 +147,39 @@ public class ItemServiceImpl implements ItemService {
     @Override
     public Optional<ItemFullDto> getItem(long id, long userId) {
         log.info("Получение информации о вещи (id={}) пользователем (id={})", id, userId);
-        Optional<Item> item = repository.findById(id);
+        Optional<Item> item = itemLookup.findItem(id);
         if (item.isPresent()) {
-            return Optional.of(ItemMapper.toItemFullDto(item.get(),
-                    bookingRepository.findLastBooking(id, userId, LocalDateTime.now()),
-                    bookingRepository.findNextBooking(id, userId, LocalDateTime.now()),
-                    commentRepository.findAllByItemIdOrderByCreatedDesc(id)
-                            .stream()
-                            .map(comment -> CommentMapper.toCommentDto(comment, validateUser(comment.getAuthorId()).getName()))
-                            .collect(Collectors.toList())));
+            return Optional.of(toItemFullDtos(List.of(item.get()), userId).get(0));
         } else {
             return Optional.empty();
         }
     }
 
     @Override
-    public Collection<Item> searchItems(String text) {
-        log.info("Поиск вещи по строке ({})", text);
-        return text == null || text.isBlank() ? new ArrayList<>() : repository.search(text);
+    public Collection<Item> searchItems(String text, LocalDateTime start, LocalDateTime end, int from, int size) {
+        log.info("Поиск вещи по строке ({}), свободной с {} по {}", text, start, end);
+        if ((start == null) != (end == null)) {
+            throw new ValidationException("Для поиска свободных вещей нужно указать и начало, и конец периода");
+        } else if (start != null && !start.isBefore(end)) {
+            throw new ValidationException(String.format(
+                    "Конец периода (%s) должен быть позже его начала (%s)", end, start));
+        }
+        if (text == null || text.isBlank()) {
+            return new ArrayList<>();
+        } else if (start != null) {
+            // брони хранятся только в базе, поэтому поиск свободных вещей не использует индекс в памяти
+            return repository.searchFree(text, start, end, PageRequest.of(from / size, size));
+        } else if (searchIndex.isEnabled()) {
+            List<Long> ids = searchIndex.search(text, from / size * size, size);
+            Map<Long, Item> items = repository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+            return ids.stream()
+                    .map(items::get)
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        } else {
+            return repository.search(text, PageRequest.of(from / size, size));
+        }
     }
 
     @Transactional
@@ -144,7 +187,7 @@ public class ItemServiceImpl implements ItemService {
     public Optional<CommentDto> addItemComment(long itemId, long userId, CommentDto commentDto) {
         log.info("Добавление комментария ({}) о вещи (id={}) пользователем (id={})",
                 commentDto.getText(), itemId, userId);
-        User user = validateUser(userId);
+        User user = userLookup.getUser(userId);
         if (validateBookingItem(itemId, userId)) {
             Comment comment = commentRepository.save(CommentMapper.toComment(commentDto, itemId, userId));
             return Optional.of(CommentMapper.toCommentDto(comment, user.getName()));
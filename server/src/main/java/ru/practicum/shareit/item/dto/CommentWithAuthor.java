@@ -0,0 +1,9 @@
+package ru.practicum.shareit.item.dto;
+
+import ru.practicum.shareit.item.model.Comment;
+
+public interface CommentWithAuthor {
+    Comment getComment(); // комментарий;
+
+    String getAuthorName(); // имя автора комментария;
+}
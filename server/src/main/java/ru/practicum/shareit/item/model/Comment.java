@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 @Data
 public class Comment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_comments")
+    @SequenceGenerator(name = "seq_comments", sequenceName = "seq_comments", allocationSize = 50)
     private long id; // уникальный идентификатор комментария;
     @Column
     private String text; // содержимое комментария;
@@ -9,7 +9,8 @@ import javax.persistence.*;
 @Data
 public class Item {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_items")
+    @SequenceGenerator(name = "seq_items", sequenceName = "seq_items", allocationSize = 50)
     private long id; // уникальный идентификатор вещи;
     @Column
     private String name; // краткое название;
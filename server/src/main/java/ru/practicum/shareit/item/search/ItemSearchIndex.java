@@ -0,0 +1,321 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.transaction.AfterCommit;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Инвертированный индекс по названию и описанию вещей, который хранится в памяти сервера.
+ * Слова запроса сопоставляются с началом слов вещи, все слова запроса должны найтись
+ * в названии или описании. Совпадения в названии поднимают вещь выше в выдаче.
+ * Индекс включается свойством {@code shareit.search.index.enabled}, строится при старте
+ * приложения и обновляется после фиксации транзакций, изменяющих вещи. Изменения, зафиксированные
+ * во время построения, применяются сразу, а прочитанные при построении строки этих вещей пропускаются:
+ * построение читает снимок базы, который может быть старше зафиксированного изменения.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex implements MeterBinder {
+    private static final String TOKEN_DELIMITER = "[^\\p{L}\\p{N}]+";
+
+    private final ItemRepository repository;
+    private final EntityManager entityManager;
+    private final boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, LongPostingList> nameTerms = new TreeMap<>();
+    private final NavigableMap<String, LongPostingList> descriptionTerms = new TreeMap<>();
+    private final LongPostingList available = new LongPostingList();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private Set<Long> changedDuringBuild; // вещи, изменённые после начала построения; null вне построения;
+    private volatile boolean ready;
+
+    public ItemSearchIndex(ItemRepository repository, EntityManager entityManager,
+                           @Value("${shareit.search.index.enabled:false}") boolean enabled) {
+        this.repository = repository;
+        this.entityManager = entityManager;
+        this.enabled = enabled;
+    }
+
+    /**
+     * Индексом можно пользоваться только после того, как он построен.
+     */
+    public boolean isEnabled() {
+        return enabled && ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void build() {
+        if (!enabled) {
+            return;
+        }
+        log.info("Построение поискового индекса вещей");
+        setChangedDuringBuild(new HashSet<>());
+        try (Stream<Item> items = repository.streamAll()) {
+            items.forEach(item -> {
+                putBuilt(item.getId(), Document.of(item));
+                entityManager.detach(item);
+            });
+        } finally {
+            setChangedDuringBuild(null);
+        }
+        ready = true;
+        log.info("Поисковый индекс построен: вещей {}, слов {}, ~{} байт",
+                documentCount(), termCount(), estimatedMemoryBytes());
+    }
+
+    /**
+     * Добавляет вещь в индекс или обновляет её. Внутри транзакции изменение применяется после фиксации.
+     */
+    public void update(Item item) {
+        if (!enabled) {
+            return;
+        }
+        long id = item.getId();
+        Document document = Document.of(item);
+        AfterCommit.run(() -> put(id, document));
+    }
+
+    public void remove(long itemId) {
+        if (!enabled) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            lock.writeLock().lock();
+            try {
+                markChanged(itemId);
+                removeDocument(itemId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Возвращает идентификаторы доступных для аренды вещей, отсортированные по релевантности.
+     */
+    public List<Long> search(String text, int from, int size) {
+        String[] tokens = tokenize(text);
+        if (tokens.length == 0) {
+            return new ArrayList<>();
+        }
+        lock.readLock().lock();
+        try {
+            LongPostingList matches = available;
+            LongPostingList[] nameMatches = new LongPostingList[tokens.length];
+            for (int i = 0; i < tokens.length && !matches.isEmpty(); i++) {
+                nameMatches[i] = prefixMatches(nameTerms, tokens[i]);
+                matches = matches.intersect(nameMatches[i].union(prefixMatches(descriptionTerms, tokens[i])));
+            }
+            long[] ids = new long[matches.size()];
+            int[] scores = new int[matches.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = matches.get(i);
+                for (LongPostingList names : nameMatches) {
+                    if (names.contains(ids[i])) {
+                        scores[i]++;
+                    }
+                }
+            }
+            // идентификаторы уже упорядочены, поэтому устойчивая сортировка по очкам сохраняет порядок по id
+            Integer[] order = new Integer[ids.length];
+            Arrays.setAll(order, i -> i);
+            Arrays.sort(order, Comparator.comparingInt(i -> -scores[i]));
+            return Arrays.stream(order)
+                    .skip(from)
+                    .limit(size)
+                    .map(i -> ids[i])
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return nameTerms.size() + descriptionTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Приблизительный объём памяти, занятый индексом: строки слов, списки идентификаторов и узлы карт.
+     */
+    public long estimatedMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            long bytes = available.estimatedMemoryBytes();
+            for (Map<String, LongPostingList> terms : List.of(nameTerms, descriptionTerms)) {
+                for (Map.Entry<String, LongPostingList> entry : terms.entrySet()) {
+                    bytes += 40 + 40 + 2L * entry.getKey().length() + entry.getValue().estimatedMemoryBytes();
+                }
+            }
+            for (Document document : documents.values()) {
+                bytes += 48 + 32 + 16L * (document.name.length + document.description.length);
+            }
+            return bytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.search.index.memory", this, ItemSearchIndex::estimatedMemoryBytes)
+                .description("Приблизительный объём памяти поискового индекса вещей")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("shareit.search.index.documents", this, ItemSearchIndex::documentCount)
+                .description("Количество вещей в поисковом индексе")
+                .register(registry);
+        Gauge.builder("shareit.search.index.terms", this, ItemSearchIndex::termCount)
+                .description("Количество слов в поисковом индексе")
+                .register(registry);
+    }
+
+    static String[] tokenize(String text) {
+        if (text == null) {
+            return new String[0];
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : text.toLowerCase(Locale.ROOT).split(TOKEN_DELIMITER)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens.toArray(new String[0]);
+    }
+
+    private void put(long id, Document document) {
+        lock.writeLock().lock();
+        try {
+            markChanged(id);
+            replaceDocument(id, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putBuilt(long id, Document document) {
+        lock.writeLock().lock();
+        try {
+            if (!changedDuringBuild.contains(id)) {
+                replaceDocument(id, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void setChangedDuringBuild(Set<Long> changed) {
+        lock.writeLock().lock();
+        try {
+            changedDuringBuild = changed;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void markChanged(long id) {
+        if (changedDuringBuild != null) {
+            changedDuringBuild.add(id);
+        }
+    }
+
+    private void replaceDocument(long id, Document document) {
+        removeDocument(id);
+        for (String term : document.name) {
+            nameTerms.computeIfAbsent(term, key -> new LongPostingList()).add(id);
+        }
+        for (String term : document.description) {
+            descriptionTerms.computeIfAbsent(term, key -> new LongPostingList()).add(id);
+        }
+        if (document.available) {
+            available.add(id);
+        }
+        documents.put(id, document);
+    }
+
+    private void removeDocument(long id) {
+        Document document = documents.remove(id);
+        if (document == null) {
+            return;
+        }
+        removeTerms(nameTerms, document.name, id);
+        removeTerms(descriptionTerms, document.description, id);
+        available.remove(id);
+    }
+
+    private static void removeTerms(Map<String, LongPostingList> terms, String[] documentTerms, long id) {
+        for (String term : documentTerms) {
+            LongPostingList postings = terms.get(term);
+            if (postings != null && postings.remove(id) && postings.isEmpty()) {
+                terms.remove(term);
+            }
+        }
+    }
+
+    private static LongPostingList prefixMatches(NavigableMap<String, LongPostingList> terms, String prefix) {
+        LongPostingList result = new LongPostingList();
+        for (LongPostingList postings : terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            result = result.union(postings);
+        }
+        return result;
+    }
+
+    private static final class Document {
+        private final String[] name; // слова названия;
+        private final String[] description; // слова описания;
+        private final boolean available; // доступна ли вещь для аренды;
+
+        private Document(String[] name, String[] description, boolean available) {
+            this.name = name;
+            this.description = description;
+            this.available = available;
+        }
+
+        private static Document of(Item item) {
+            return new Document(tokenize(item.getName()), tokenize(item.getDescription()),
+                    Boolean.TRUE.equals(item.getAvailable()));
+        }
+    }
+}
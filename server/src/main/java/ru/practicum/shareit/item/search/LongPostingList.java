@@ -0,0 +1,100 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+
+public class LongPostingList {
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids; // идентификаторы вещей, отсортированные по возрастанию
+    private int size; // количество занятых ячеек массива
+
+    public LongPostingList() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private LongPostingList(int capacity) {
+        this.ids = new long[capacity];
+    }
+
+    public boolean add(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return false;
+        }
+        int insertionPoint = -index - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        System.arraycopy(ids, insertionPoint, ids, insertionPoint + 1, size - insertionPoint);
+        ids[insertionPoint] = id;
+        size++;
+        return true;
+    }
+
+    public boolean remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    public boolean contains(long id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public long get(int index) {
+        return ids[index];
+    }
+
+    public long estimatedMemoryBytes() {
+        return 32L + 16L + 8L * ids.length;
+    }
+
+    public LongPostingList union(LongPostingList other) {
+        LongPostingList result = new LongPostingList(Math.max(INITIAL_CAPACITY, size + other.size));
+        int i = 0;
+        int j = 0;
+        while (i < size || j < other.size) {
+            long next;
+            if (j == other.size || (i < size && ids[i] < other.ids[j])) {
+                next = ids[i++];
+            } else if (i == size || other.ids[j] < ids[i]) {
+                next = other.ids[j++];
+            } else {
+                next = ids[i++];
+                j++;
+            }
+            result.ids[result.size++] = next;
+        }
+        return result;
+    }
+
+    public LongPostingList intersect(LongPostingList other) {
+        LongPostingList result = new LongPostingList(Math.max(INITIAL_CAPACITY, Math.min(size, other.size)));
+        int i = 0;
+        int j = 0;
+        while (i < size && j < other.size) {
+            if (ids[i] < other.ids[j]) {
+                i++;
+            } else if (other.ids[j] < ids[i]) {
+                j++;
+            } else {
+                result.ids[result.size++] = ids[i];
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+}
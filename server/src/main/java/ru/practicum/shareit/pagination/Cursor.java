@@ -0,0 +1,65 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Позиция в выдаче, отсортированной по убыванию даты и идентификатора. Клиенту передаётся
+ * в виде непрозрачной строки: следующая страница начинается сразу после этой позиции.
+ */
+public class Cursor {
+    public static final String HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime date; // дата последнего элемента страницы;
+    private final long id; // идентификатор последнего элемента страницы;
+
+    public Cursor(LocalDateTime date, long id) {
+        this.date = date;
+        this.id = id;
+    }
+
+    public LocalDateTime getDate() {
+        return date;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((date + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.indexOf(SEPARATOR);
+            return new Cursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ValidationException(String.format("Параметр cursor (%s) задан некорректно", token));
+        }
+    }
+
+    /**
+     * Ответ со страницей; если страница заполнена целиком, в заголовке передаётся курсор следующей.
+     */
+    public static <T> ResponseEntity<Collection<T>> toResponse(Collection<T> page, int size,
+                                                               Function<T, Cursor> cursorOf) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!page.isEmpty() && page.size() >= size) {
+            T last = page.stream().reduce((first, second) -> second).get();
+            response.header(HEADER, cursorOf.apply(last).encode());
+        }
+        return response.body(page);
+    }
+}
@@ -10,7 +10,8 @@ import java.time.LocalDateTime;
 @Data
 public class ItemRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_requests")
+    @SequenceGenerator(name = "seq_requests", sequenceName = "seq_requests", allocationSize = 50)
     private Long id; // уникальный идентификатор запроса;
     @Column
     private String description; // текст запроса, содержащий описание требуемой вещи;
@@ -4,6 +4,7 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestFullDto;
 
@@ -22,17 +23,27 @@ public class ItemRequestController {
     }
 
     @GetMapping
-    public Collection<ItemRequestFullDto> findUserItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                               @RequestParam(defaultValue = "0") int from,
-                                                               @RequestParam(defaultValue = "20") int size) {
-        return service.findUserItemRequests(userId, from, size);
+    public ResponseEntity<Collection<ItemRequestFullDto>> findUserItemRequests(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        return Cursor.toResponse(cursor == null
+                        ? service.findUserItemRequests(userId, from, size)
+                        : service.findUserItemRequests(userId, Cursor.decode(cursor), size),
+                size, itemRequest -> new Cursor(itemRequest.getCreated(), itemRequest.getId()));
     }
 
     @GetMapping("/all")
-    public Collection<ItemRequestFullDto> findAllItemRequests(@RequestHeader("X-Sharer-User-Id") long userId,
-                                                              @RequestParam(defaultValue = "0") int from,
-                                                              @RequestParam(defaultValue = "20") int size) {
-        return service.findAllItemRequests(userId, from, size);
+    public ResponseEntity<Collection<ItemRequestFullDto>> findAllItemRequests(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(defaultValue = "0") int from,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(required = false) String cursor) {
+        return Cursor.toResponse(cursor == null
+                        ? service.findAllItemRequests(userId, from, size)
+                        : service.findAllItemRequests(userId, Cursor.decode(cursor), size),
+                size, itemRequest -> new Cursor(itemRequest.getCreated(), itemRequest.getId()));
     }
 
     @GetMapping("/{id}")
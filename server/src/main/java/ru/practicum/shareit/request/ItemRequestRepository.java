@@ -1,11 +1,27 @@
 package ru.practicum.shareit.request;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    Page<ItemRequest> findByRequestorOrderByCreatedDesc(long userId, Pageable pageable);
+    Slice<ItemRequest> findByRequestorOrderByCreatedDescIdDesc(long userId, Pageable pageable);
+
+    Slice<ItemRequest> findByRequestorNotOrderByCreatedDescIdDesc(long userId, Pageable pageable);
+
+    @Query(" select r from ItemRequest r " +
+            " where r.requestor = ?1 " +
+            "   and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            " order by r.created desc, r.id desc")
+    List<ItemRequest> findNextByRequestor(long userId, LocalDateTime created, long id, Pageable pageable);
 
-    Page<ItemRequest> findByRequestorNotOrderByCreatedDesc(long userId, Pageable pageable);
+    @Query(" select r from ItemRequest r " +
+            " where r.requestor <> ?1 " +
+            "   and (r.created < ?2 or (r.created = ?2 and r.id < ?3)) " +
+            " order by r.created desc, r.id desc")
+    List<ItemRequest> findNextByRequestorNot(long userId, LocalDateTime created, long id, Pageable pageable);
 }
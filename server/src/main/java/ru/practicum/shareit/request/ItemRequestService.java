@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request;
 
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestFullDto;
 
@@ -13,5 +14,9 @@ public interface ItemRequestService {
 
     Collection<ItemRequestFullDto> findUserItemRequests(long userId, int from, int size);
 
+    Collection<ItemRequestFullDto> findAllItemRequests(long userId, Cursor cursor, int size);
+
+    Collection<ItemRequestFullDto> findUserItemRequests(long userId, Cursor cursor, int size);
+
     Optional<ItemRequestFullDto> getItemRequest(long id, long userId);
 }
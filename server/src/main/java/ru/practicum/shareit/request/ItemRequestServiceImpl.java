@@ -5,14 +5,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestFullDto;
-import ru.practicum.shareit.user.User;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserLookup;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -23,21 +26,13 @@ import java.util.stream.Collectors;
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository repository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
-
-    private User validateUser(long userId) {
-        Optional<User> user = userRepository.findById(userId);
-        if (!user.isPresent()) {
-            throw new NotFoundException(String.format("Пользователь (id = %s) не найден", userId));
-        }
-        return user.get();
-    }
+    private final UserLookup userLookup;
 
     @Transactional
     @Override
     public ItemRequest saveItemRequest(ItemRequestDto itemRequestDto, long userId) {
         log.info("Добавление запроса ({}) пользователем (id={})", itemRequestDto.toString(), userId);
-        validateUser(userId);
+        userLookup.getUser(userId);
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(itemRequestDto, userId);
         return repository.save(itemRequest);
     }
@@ -45,35 +40,57 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     public Collection<ItemRequestFullDto> findAllItemRequests(long userId, int from, int size) {
         log.info("Поиск всех запросов не от пользователя (id={})", userId);
-        validateUser(userId);
+        userLookup.getUser(userId);
         int page = from / size;
-        return repository.findByRequestorNotOrderByCreatedDesc(userId, PageRequest.of(page, size))
-                .stream()
-                .map(itemRequest -> ItemRequestMapper.toItemRequestFullDto(itemRequest,
-                        itemRepository.findByRequestId(itemRequest.getId())
-                                .stream()
-                                .collect(Collectors.toList())))
-                .collect(Collectors.toList());
+        return toItemRequestFullDtos(
+                repository.findByRequestorNotOrderByCreatedDescIdDesc(userId, PageRequest.of(page, size)).getContent());
     }
 
     @Override
     public Collection<ItemRequestFullDto> findUserItemRequests(long userId, int from, int size) {
         log.info("Поиск всех запросов пользователя (id={})", userId);
-        validateUser(userId);
+        userLookup.getUser(userId);
         int page = from / size;
-        return repository.findByRequestorOrderByCreatedDesc(userId, PageRequest.of(page, size))
+        return toItemRequestFullDtos(
+                repository.findByRequestorOrderByCreatedDescIdDesc(userId, PageRequest.of(page, size)).getContent());
+    }
+
+    @Override
+    public Collection<ItemRequestFullDto> findAllItemRequests(long userId, Cursor cursor, int size) {
+        log.info("Поиск всех запросов не от пользователя (id={}) после {}", userId, cursor.encode());
+        userLookup.getUser(userId);
+        return toItemRequestFullDtos(repository.findNextByRequestorNot(
+                userId, cursor.getDate(), cursor.getId(), PageRequest.of(0, size)));
+    }
+
+    @Override
+    public Collection<ItemRequestFullDto> findUserItemRequests(long userId, Cursor cursor, int size) {
+        log.info("Поиск всех запросов пользователя (id={}) после {}", userId, cursor.encode());
+        userLookup.getUser(userId);
+        return toItemRequestFullDtos(repository.findNextByRequestor(
+                userId, cursor.getDate(), cursor.getId(), PageRequest.of(0, size)));
+    }
+
+    private List<ItemRequestFullDto> toItemRequestFullDtos(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Long> requestIds = itemRequests.stream()
+                .map(ItemRequest::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<Item>> items = itemRepository.findByRequestIdIn(requestIds)
                 .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId));
+        return itemRequests.stream()
                 .map(itemRequest -> ItemRequestMapper.toItemRequestFullDto(itemRequest,
-                        itemRepository.findByRequestId(itemRequest.getId())
-                                .stream()
-                                .collect(Collectors.toList())))
+                        items.get(itemRequest.getId())))
                 .collect(Collectors.toList());
     }
 
     @Override
     public Optional<ItemRequestFullDto> getItemRequest(long id, long userId) {
         log.info("Получение информации о запросе (id={}) пользователем (id={})", id, userId);
-        validateUser(userId);
+        userLookup.getUser(userId);
         Optional<ItemRequest> itemRequest = repository.findById(id);
         if (itemRequest.isPresent()) {
             return Optional.of(ItemRequestMapper.toItemRequestFullDto(itemRequest.get(),
@@ -0,0 +1,99 @@
+package ru.practicum.shareit.streaming;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.ToLongFunction;
+
+/**
+ * Выдача, которая читается порциями по ключу: следующая порция запрашивается после последнего
+ * идентификатора предыдущей и только тогда, когда предыдущая прочитана, поэтому в памяти держится
+ * не больше одной порции. Каждый обход начинается заново с первой порции.
+ */
+public final class KeysetBatches<T> implements Iterable<Collection<T>> {
+    private final Fetch<T> fetch;
+    private final ToLongFunction<T> idOf;
+    private final long fromId;
+    private final int batchSize;
+    private final long limit;
+
+    @FunctionalInterface
+    public interface Fetch<T> {
+        Collection<T> next(long afterId, int size);
+    }
+
+    /**
+     * @param fromId    идентификатор, после которого начинается выдача
+     * @param batchSize наибольшее число элементов в одной порции
+     * @param limit     наибольшее число элементов во всей выдаче
+     */
+    public KeysetBatches(Fetch<T> fetch, ToLongFunction<T> idOf, long fromId, int batchSize, long limit) {
+        this.fetch = fetch;
+        this.idOf = idOf;
+        this.fromId = fromId;
+        this.batchSize = batchSize;
+        this.limit = limit;
+    }
+
+    @Override
+    public Iterator<Collection<T>> iterator() {
+        return new Iterator<>() {
+            private long afterId = fromId;
+            private long remaining = limit;
+            private boolean exhausted = remaining <= 0;
+            private Collection<T> batch;
+
+            @Override
+            public boolean hasNext() {
+                if (batch == null && !exhausted) {
+                    int size = (int) Math.min(batchSize, remaining);
+                    Collection<T> next = fetch.next(afterId, size);
+                    for (T element : next) {
+                        afterId = idOf.applyAsLong(element);
+                    }
+                    remaining -= next.size();
+                    exhausted = next.size() < size || remaining <= 0;
+                    batch = next.isEmpty() ? null : next;
+                }
+                return batch != null;
+            }
+
+            @Override
+            public Collection<T> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Collection<T> next = batch;
+                batch = null;
+                return next;
+            }
+        };
+    }
+
+    /**
+     * Элементы всех порций подряд; порции по-прежнему загружаются по мере обхода.
+     */
+    public Iterable<T> elements() {
+        return () -> new Iterator<>() {
+            private final Iterator<Collection<T>> batches = KeysetBatches.this.iterator();
+            private Iterator<T> current = Collections.emptyIterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext() && batches.hasNext()) {
+                    current = batches.next().iterator();
+                }
+                return current.hasNext();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        };
+    }
+}
@@ -0,0 +1,15 @@
+package ru.practicum.shareit.threads;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Включает {@link VirtualThreadsSupport} свойством shareit.virtual-threads.enabled. Поток, ожидающий
+ * JDBC и пул соединений с базой, при этом не занимает поток ОС.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.virtual-threads.enabled", havingValue = "true")
+@Import(VirtualThreadsSupport.class)
+public class VirtualThreadsConfig {
+}
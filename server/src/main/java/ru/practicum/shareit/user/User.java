@@ -9,7 +9,8 @@ import javax.persistence.*;
 @Data
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seq_users")
+    @SequenceGenerator(name = "seq_users", sequenceName = "seq_users", allocationSize = 50)
     private long id; // уникальный идентификатор пользователя;
     private String email; // адрес электронной почты;
     private String name; // имя или логин пользователя;
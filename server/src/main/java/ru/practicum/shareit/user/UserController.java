@@ -4,18 +4,29 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+import ru.practicum.shareit.streaming.KeysetBatches;
 
-import java.util.Collection;
+import javax.servlet.http.HttpServletRequest;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/users")
 public class UserController {
+    static final int STREAMING_BATCH_SIZE = 100; // наибольшее число пользователей, загружаемых одним запросом к базе
+
     private final UserService service;
 
+    /**
+     * Список всех пользователей отдаётся без ETag: пользователи загружаются порциями по мере записи ответа,
+     * поэтому ни тело, ни его хеш целиком в памяти не собираются.
+     */
     @GetMapping
-    public Collection<User> getAllUsers() {
-        return service.getAllUsers();
+    public ResponseEntity<Iterable<User>> getAllUsers(HttpServletRequest request) {
+        ShallowEtagHeaderFilter.disableContentCaching(request);
+        KeysetBatches<User> users = new KeysetBatches<>(service::findUsers, User::getId,
+                0, STREAMING_BATCH_SIZE, Long.MAX_VALUE);
+        return ResponseEntity.ok().body(users.elements());
     }
 
     @PostMapping
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.user;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.cache.CacheConfig;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Поиск пользователей для проверок в сервисах. Найденные пользователи кешируются,
+ * поэтому повторная проверка существования не обращается к базе данных.
+ */
+@Component
+@RequiredArgsConstructor
+public class UserLookup {
+    private final UserRepository repository;
+
+    @Cacheable(CacheConfig.USERS)
+    public User getUser(long userId) {
+        return repository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(String.format("Пользователь (id = %s) не найден", userId)));
+    }
+
+    /**
+     * То же, что {@link #getUser(long)}, но без исключения для отсутствующего пользователя.
+     */
+    @Cacheable(cacheNames = CacheConfig.USERS, unless = "#result == null")
+    public Optional<User> findUser(long userId) {
+        return repository.findById(userId);
+    }
+
+    public List<User> findAllById(Collection<Long> userIds) {
+        return repository.findAllById(userIds);
+    }
+
+    /**
+     * Внутри транзакции удаление применяется после её фиксации.
+     */
+    @CacheEvict(CacheConfig.USERS)
+    public void evict(long userId) {
+    }
+}
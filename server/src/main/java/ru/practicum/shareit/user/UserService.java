@@ -1,10 +1,13 @@
 package ru.practicum.shareit.user;
 
-import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface UserService {
-    Collection<User> getAllUsers();
+    /**
+     * Возвращает не больше size пользователей с идентификатором больше fromId в порядке возрастания идентификатора.
+     */
+    List<User> findUsers(long fromId, int size);
 
     User saveUser(User user);
 
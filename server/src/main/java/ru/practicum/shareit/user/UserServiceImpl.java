@@ -2,11 +2,12 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ConflictException;
 
-import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Slf4j
@@ -15,10 +16,12 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository repository;
+    private final UserLookup userLookup;
 
     @Override
-    public Collection<User> getAllUsers() {
-        return repository.findAll();
+    public List<User> findUsers(long fromId, int size) {
+        log.info("Получение пользователей начиная с id > {}", fromId);
+        return repository.findByIdGreaterThanOrderById(fromId, PageRequest.of(0, size));
     }
 
     private void validate(User user) {
@@ -40,7 +43,7 @@ public class UserServiceImpl implements UserService {
     public Optional<User> updateUser(User user) {
         log.info("Редактирование пользователя {}", user.toString());
         validate(user);
-        Optional<User> changeableUser = getUser(user.getId());
+        Optional<User> changeableUser = repository.findById(user.getId());
         if (changeableUser.isPresent()) {
             if (user.getEmail() != null) {
                 changeableUser.get().setEmail(user.getEmail());
@@ -49,6 +52,7 @@ public class UserServiceImpl implements UserService {
                 changeableUser.get().setName(user.getName());
             }
             repository.save(changeableUser.get());
+            userLookup.evict(user.getId());
         }
         return changeableUser;
     }
@@ -57,9 +61,10 @@ public class UserServiceImpl implements UserService {
     @Override
     public boolean deleteUser(long id) {
         log.info("Удаление пользователя (id={})", id);
-        Optional<User> user = getUser(id);
+        Optional<User> user = repository.findById(id);
         if (user.isPresent()) {
             repository.deleteById(id);
+            userLookup.evict(id);
             return true;
         } else {
             return false;
@@ -68,6 +73,6 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Optional<User> getUser(long id) {
-        return repository.findById(id);
+        return userLookup.findUser(id);
     }
 }
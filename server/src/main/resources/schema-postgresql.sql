@@ -0,0 +1,68 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS ix_items_name_trgm
+    ON items USING gin (upper(name) gin_trgm_ops)
+    WHERE is_available = true;
+
+CREATE INDEX IF NOT EXISTS ix_items_description_trgm
+    ON items USING gin (upper(description) gin_trgm_ops)
+    WHERE is_available = true;
+
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- до появления ограничения подтверждение не проверяло пересечения, поэтому в старых базах могут быть
+-- пересекающиеся подтверждённые брони одной вещи: из каждой такой группы остаётся подтверждённой созданная
+-- раньше других, остальные отклоняются, иначе ограничение не создать и сервер не запустится
+DO '
+DECLARE
+    conflicting RECORD;
+    rejected    INTEGER := 0;
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_constraint WHERE conname = ''ex_bookings_approved_overlap'') THEN
+        RETURN;
+    END IF;
+    FOR conflicting IN
+        SELECT b.id FROM bookings b
+         WHERE b.status = ''APPROVED''
+           AND EXISTS (SELECT 1 FROM bookings e
+                        WHERE e.item_id = b.item_id
+                          AND e.status = ''APPROVED''
+                          AND e.id < b.id
+                          AND e.start_date < b.end_date
+                          AND e.end_date > b.start_date)
+         ORDER BY b.id
+    LOOP
+        UPDATE bookings b SET status = ''REJECTED''
+         WHERE b.id = conflicting.id
+           AND EXISTS (SELECT 1 FROM bookings e
+                        WHERE e.item_id = b.item_id
+                          AND e.status = ''APPROVED''
+                          AND e.id < b.id
+                          AND e.start_date < b.end_date
+                          AND e.end_date > b.start_date);
+        IF FOUND THEN
+            rejected := rejected + 1;
+        END IF;
+    END LOOP;
+    IF rejected > 0 THEN
+        RAISE WARNING ''Отклонено пересекающихся подтверждённых броней: %'', rejected;
+    END IF;
+    ALTER TABLE bookings ADD CONSTRAINT ex_bookings_approved_overlap
+        EXCLUDE USING gist (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+        WHERE (status = ''APPROVED'');
+EXCEPTION
+    WHEN duplicate_table OR duplicate_object THEN NULL;
+END';
+
+-- базы, созданные до перехода на последовательности, уже содержат строки с идентификаторами из identity-столбцов:
+-- сдвигаем последовательности за наибольший занятый идентификатор, чтобы новые блоки с ними не пересекались
+SELECT setval('seq_users', (SELECT max(id) FROM users))
+ WHERE (SELECT max(id) FROM users) >= (SELECT last_value FROM seq_users);
+SELECT setval('seq_items', (SELECT max(id) FROM items))
+ WHERE (SELECT max(id) FROM items) >= (SELECT last_value FROM seq_items);
+SELECT setval('seq_bookings', (SELECT max(id) FROM bookings))
+ WHERE (SELECT max(id) FROM bookings) >= (SELECT last_value FROM seq_bookings);
+SELECT setval('seq_requests', (SELECT max(id) FROM requests))
+ WHERE (SELECT max(id) FROM requests) >= (SELECT last_value FROM seq_requests);
+SELECT setval('seq_comments', (SELECT max(id) FROM comments))
+ WHERE (SELECT max(id) FROM comments) >= (SELECT last_value FROM seq_comments);
@@ -1,15 +1,19 @@
+CREATE SEQUENCE IF NOT EXISTS seq_users START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users
 (
-    id    BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id    BIGINT                                  NOT NULL,
     name  VARCHAR(255)                            NOT NULL,
     email VARCHAR(512)                            NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
 );
 
+CREATE SEQUENCE IF NOT EXISTS seq_items START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS items
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id           BIGINT                                  NOT NULL,
     name         VARCHAR(255)                            NOT NULL,
     description  VARCHAR(4000)                           NOT NULL,
     is_available BOOLEAN                                 NOT NULL,
@@ -19,9 +23,14 @@ CREATE TABLE IF NOT EXISTS items
     CONSTRAINT fk_items_to_users FOREIGN KEY (owner_id) REFERENCES users (id)
 );
 
+CREATE INDEX IF NOT EXISTS ix_items_owner_id ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS ix_items_request_id ON items (request_id);
+
+CREATE SEQUENCE IF NOT EXISTS seq_bookings START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id         BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id         BIGINT                                  NOT NULL,
     start_date TIMESTAMP                               NOT NULL,
     end_date   TIMESTAMP                               NOT NULL,
     item_id    BIGINT                                  NOT NULL,
@@ -32,9 +41,15 @@ CREATE TABLE IF NOT EXISTS bookings
     CONSTRAINT fk_bookings_to_users FOREIGN KEY (booker_id) REFERENCES users (id)
 );
 
+CREATE INDEX IF NOT EXISTS ix_bookings_item_status_start ON bookings (item_id, status, start_date, end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC);
+
+CREATE SEQUENCE IF NOT EXISTS seq_requests START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS requests
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id           BIGINT                                  NOT NULL,
     description  VARCHAR(4000)                           NOT NULL,
     requestor_id BIGINT                                  NOT NULL,
     created      TIMESTAMP                               NOT NULL,
@@ -42,9 +57,16 @@ CREATE TABLE IF NOT EXISTS requests
     CONSTRAINT fk_requests_to_users FOREIGN KEY (requestor_id) REFERENCES users (id)
 );
 
+DROP INDEX IF EXISTS ix_requests_requestor_created;
+DROP INDEX IF EXISTS ix_requests_created;
+CREATE INDEX IF NOT EXISTS ix_requests_requestor_created_id ON requests (requestor_id, created DESC, id DESC);
+CREATE INDEX IF NOT EXISTS ix_requests_created_id ON requests (created DESC, id DESC);
+
+CREATE SEQUENCE IF NOT EXISTS seq_comments START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS comments
 (
-    id        BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id        BIGINT                                  NOT NULL,
     text      VARCHAR(4000)                           NOT NULL,
     item_id   BIGINT                                  NOT NULL,
     author_id BIGINT                                  NOT NULL,
@@ -52,4 +74,6 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT pk_comments PRIMARY KEY (id),
     CONSTRAINT fk_comments_to_items FOREIGN KEY (item_id) REFERENCES items (id),
     CONSTRAINT fk_comments_to_users FOREIGN KEY (author_id) REFERENCES users (id)
-);
\ No newline at end of file
+);
+
+CREATE INDEX IF NOT EXISTS ix_comments_item_created ON comments (item_id, created DESC);
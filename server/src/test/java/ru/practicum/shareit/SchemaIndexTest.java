@@ -0,0 +1,180 @@
+package ru.practicum.shareit;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import ru.practicum.shareit.booking.BookingRepository;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.item.CommentRepository;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.request.ItemRequestRepository;
+import ru.practicum.shareit.user.UserRepository;
+
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Планы запросов, которые Hibernate выполняет для методов репозиториев: запросы перехватываются
+ * {@link StatementInspector} и объясняются в H2 с пустыми параметрами. Полнотекстовый поиск вещей
+ * и потоковые выгрузки сюда не входят: поиск обслуживается триграммными индексами PostgreSQL,
+ * а выгрузки читают таблицы целиком.
+ */
+@DataJpaTest
+@Import(SchemaIndexTest.StatementCaptureConfig.class)
+class SchemaIndexTest {
+    private static final List<String> statements = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookingRepository bookings;
+
+    @Autowired
+    private ItemRepository items;
+
+    @Autowired
+    private CommentRepository comments;
+
+    @Autowired
+    private ItemRequestRepository requests;
+
+    @Autowired
+    private UserRepository users;
+
+    static Stream<Arguments> repositoryCalls() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest page = PageRequest.of(0, 20);
+        PageRequest sortedPage = PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "start", "id"));
+        return Stream.of(
+                // BookingRepository
+                call("findAllByBookerId", test -> test.bookings.findAllByBookerId(1, sortedPage)),
+                call("findAllByBookerIdAndStartBeforeAndEndAfter", test -> test.bookings
+                        .findAllByBookerIdAndStartBeforeAndEndAfter(1, now, now, sortedPage)),
+                call("findAllByBookerIdAndEndBefore", test -> test.bookings
+                        .findAllByBookerIdAndEndBefore(1, now, sortedPage)),
+                call("findAllByBookerIdAndStartAfter", test -> test.bookings
+                        .findAllByBookerIdAndStartAfter(1, now, sortedPage)),
+                call("findAllByBookerIdAndStatus", test -> test.bookings
+                        .findAllByBookerIdAndStatus(1, BookingStatus.WAITING, sortedPage)),
+                call("findAllByOwnerId", test -> test.bookings.findAllByOwnerId(1, page)),
+                call("findAllByOwnerIdAndStartBeforeAndEndAfter", test -> test.bookings
+                        .findAllByOwnerIdAndStartBeforeAndEndAfter(1, now, now, page)),
+                call("findAllByOwnerIdAndEndBefore", test -> test.bookings
+                        .findAllByOwnerIdAndEndBefore(1, now, page)),
+                call("findAllByOwnerIdAndStartAfter", test -> test.bookings
+                        .findAllByOwnerIdAndStartAfter(1, now, page)),
+                call("findAllByOwnerIdAndStatus", test -> test.bookings
+                        .findAllByOwnerIdAndStatus(1, BookingStatus.WAITING, page)),
+                call("findNextByBookerId", test -> test.bookings.findNextByBookerId(1, now, 1, page)),
+                call("findNextByBookerIdAndCurrent", test -> test.bookings
+                        .findNextByBookerIdAndCurrent(1, now, now, 1, page)),
+                call("findNextByBookerIdAndEndBefore", test -> test.bookings
+                        .findNextByBookerIdAndEndBefore(1, now, now, 1, page)),
+                call("findNextByBookerIdAndStartAfter", test -> test.bookings
+                        .findNextByBookerIdAndStartAfter(1, now, now, 1, page)),
+                call("findNextByBookerIdAndStatus", test -> test.bookings
+                        .findNextByBookerIdAndStatus(1, BookingStatus.WAITING, now, 1, page)),
+                call("findNextByOwnerId", test -> test.bookings.findNextByOwnerId(1, now, 1, page)),
+                call("findNextByOwnerIdAndCurrent", test -> test.bookings
+                        .findNextByOwnerIdAndCurrent(1, now, now, 1, page)),
+                call("findNextByOwnerIdAndEndBefore", test -> test.bookings
+                        .findNextByOwnerIdAndEndBefore(1, now, now, 1, page)),
+                call("findNextByOwnerIdAndStartAfter", test -> test.bookings
+                        .findNextByOwnerIdAndStartAfter(1, now, now, 1, page)),
+                call("findNextByOwnerIdAndStatus", test -> test.bookings
+                        .findNextByOwnerIdAndStatus(1, BookingStatus.WAITING, now, 1, page)),
+                call("existsApprovedOverlap", test -> test.bookings
+                        .existsApprovedOverlap(1, now, now.plusDays(1))),
+                call("findApprovedOverlaps", test -> test.bookings
+                        .findApprovedOverlaps(List.of(1L, 2L), now, now.plusDays(1))),
+                call("updateWaitingStatus", test -> test.bookings
+                        .updateWaitingStatus(List.of(1L, 2L), BookingStatus.APPROVED)),
+                call("findAllByItemIdAndStatusAndEndAfter", test -> test.bookings
+                        .findAllByItemIdAndStatusAndEndAfter(1, BookingStatus.APPROVED, now)),
+                call("findLastAndNextBookings", test -> test.bookings
+                        .findLastAndNextBookings(List.of(1L, 2L), 1, now)),
+                call("findByItemIdAndBookerIdAndStatusAndEndBefore", test -> test.bookings
+                        .findByItemIdAndBookerIdAndStatusAndEndBefore(1, 1, BookingStatus.APPROVED, now)),
+                // ItemRepository
+                call("findByOwnerAndIdGreaterThanOrderById", test -> test.items
+                        .findByOwnerAndIdGreaterThanOrderById(1, 0, page)),
+                call("findByRequestId", test -> test.items.findByRequestId(1)),
+                call("findByRequestIdIn", test -> test.items.findByRequestIdIn(List.of(1L, 2L, 3L))),
+                // CommentRepository
+                call("findAllWithAuthorByItemIdIn", test -> test.comments
+                        .findAllWithAuthorByItemIdIn(List.of(1L, 2L))),
+                // ItemRequestRepository
+                call("findByRequestorOrderByCreatedDescIdDesc", test -> test.requests
+                        .findByRequestorOrderByCreatedDescIdDesc(1, page)),
+                call("findByRequestorNotOrderByCreatedDescIdDesc", test -> test.requests
+                        .findByRequestorNotOrderByCreatedDescIdDesc(1, page)),
+                call("findNextByRequestor", test -> test.requests.findNextByRequestor(1, now, 1, page)),
+                call("findNextByRequestorNot", test -> test.requests.findNextByRequestorNot(1, now, 1, page)),
+                // UserRepository
+                call("findByEmail", test -> test.users.findByEmail("dimano@mail.ru")),
+                call("findByIdGreaterThanOrderById", test -> test.users.findByIdGreaterThanOrderById(0, page))
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryCalls")
+    void repositoryQueriesUseIndexes(String method, Consumer<SchemaIndexTest> call) {
+        statements.clear();
+        call.accept(this);
+
+        assertThat(method, statements, not(empty()));
+        for (String sql : statements) {
+            assertThat(sql, explain(sql), not(containsString("tableScan")));
+        }
+    }
+
+    private String explain(String sql) {
+        PreparedStatementSetter nullParameters = statement -> {
+            int count = statement.getParameterMetaData().getParameterCount();
+            for (int i = 1; i <= count; i++) {
+                statement.setNull(i, Types.NULL);
+            }
+        };
+        ResultSetExtractor<String> plan = resultSet -> resultSet.next() ? resultSet.getString(1) : null;
+        return jdbcTemplate.query("explain " + sql, nullParameters, plan);
+    }
+
+    private static Arguments call(String method, Consumer<SchemaIndexTest> call) {
+        return Arguments.of(method, call);
+    }
+
+    @TestConfiguration
+    static class StatementCaptureConfig {
+        @Bean
+        HibernatePropertiesCustomizer statementInspector() {
+            return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                    (StatementInspector) sql -> {
+                        statements.add(sql);
+                        return sql;
+                    });
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package ru.practicum.shareit.booking;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserLookup;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Число SQL-запросов пакетных операций с бронями не должно зависеть от размера пакета.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({BookingServiceImpl.class, UserLookup.class, ItemAvailabilityIndex.class})
+class BookingBatchStatementCountTest {
+
+    // пользователь, вещи и пересечения читаются по одному разу на пакет, брони вставляются одним пакетом
+    private static final long SAVE_BATCH_STATEMENTS = 4;
+
+    // владелец, брони, вещи, авторы броней и пересечения читаются по одному разу, затем два групповых обновления
+    private static final long DECIDE_BATCH_STATEMENTS = 7;
+
+    // запрос следующего блока идентификаторов, если выданный блок закончился
+    private static final long ID_BLOCK_STATEMENTS = 1;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private long ownerId;
+    private long bookerId;
+    private long itemId;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setup() {
+        User owner = new User();
+        owner.setName("Dima");
+        owner.setEmail("dimano@mail.ru");
+        ownerId = em.persist(owner).getId();
+
+        Item item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Инструмент для сверления");
+        item.setAvailable(true);
+        item.setOwner(ownerId);
+        itemId = em.persist(item).getId();
+
+        User booker = new User();
+        booker.setName("DN");
+        booker.setEmail("dimano@yandex.ru");
+        bookerId = em.persist(booker).getId();
+
+        start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+
+        // первая бронь получает блок идентификаторов до замеров
+        Booking pastBooking = new Booking();
+        pastBooking.setItemId(itemId);
+        pastBooking.setBookerId(bookerId);
+        pastBooking.setStart(start.minusDays(10));
+        pastBooking.setEnd(start.minusDays(9));
+        pastBooking.setStatus(BookingStatus.APPROVED);
+        em.persist(pastBooking);
+        em.flush();
+        em.clear();
+    }
+
+    @Test
+    void saveBookingsInsertsWholeBatchAtOnce() {
+        List<BookingDto> bookingDtos = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            bookingDtos.add(new BookingDto(itemId, start.plusDays(i), start.plusDays(i).plusHours(1)));
+        }
+
+        Statistics statistics = statistics();
+        List<BookingBatchResultDto> results = bookingService.saveBookings(bookingDtos, bookerId);
+        em.flush();
+
+        assertThat(results).extracting(BookingBatchResultDto::getStatus).containsOnly(201);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(40);
+        assertThat(statistics.getPrepareStatementCount())
+                .isBetween(SAVE_BATCH_STATEMENTS, SAVE_BATCH_STATEMENTS + ID_BLOCK_STATEMENTS);
+    }
+
+    @Test
+    void decideBookingsUpdatesWholeBatchAtOnce() {
+        List<BookingDecisionDto> decisions = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Booking booking = new Booking();
+            booking.setItemId(itemId);
+            booking.setBookerId(bookerId);
+            booking.setStart(start.plusDays(i));
+            booking.setEnd(start.plusDays(i).plusHours(1));
+            booking.setStatus(BookingStatus.WAITING);
+            decisions.add(new BookingDecisionDto(em.persist(booking).getId(), i % 2 == 0));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = statistics();
+        List<BookingBatchResultDto> results = bookingService.decideBookings(decisions, ownerId);
+
+        assertThat(results).extracting(BookingBatchResultDto::getStatus).containsOnly(200);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(DECIDE_BATCH_STATEMENTS);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -5,14 +5,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.User;
 
 import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -22,6 +27,7 @@ import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -92,6 +98,45 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.item.name", is(bookingFullDto.getItem().getName())));
     }
 
+    @Test
+    void createBookings() throws Exception {
+        when(service.saveBookings(anyList(), anyLong()))
+                .thenReturn(List.of(
+                        new BookingBatchResultDto(0, 201, bookingFullDto, null),
+                        new BookingBatchResultDto(1, 404, null, "Вещь (id = 5) не найдена")));
+
+        mvc.perform(post("/bookings/batch")
+                .content(mapper.writeValueAsString(List.of(bookingDto, bookingDto)))
+                .header("X-Sharer-User-Id", "1")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[0].booking.id", is(bookingFullDto.getId()), Long.class))
+                .andExpect(jsonPath("$[1].index", is(1)))
+                .andExpect(jsonPath("$[1].status", is(404)))
+                .andExpect(jsonPath("$[1].error", is("Вещь (id = 5) не найдена")));
+    }
+
+    @Test
+    void updateBookings() throws Exception {
+        when(service.decideBookings(anyList(), anyLong()))
+                .thenReturn(List.of(new BookingBatchResultDto(0, 200, bookingFullDto, null)));
+
+        mvc.perform(patch("/bookings/batch")
+                .content(mapper.writeValueAsString(List.of(new BookingDecisionDto(1L, true))))
+                .header("X-Sharer-User-Id", "1")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].booking.status", is(bookingFullDto.getStatus().toString())));
+    }
+
     @Test
     void updateBookingOk() throws Exception {
         when(service.updateBooking(anyLong(), anyLong(), anyBoolean()))
@@ -114,6 +159,23 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.item.name", is(bookingFullDto.getItem().getName())));
     }
 
+    @Test
+    void updateBookingOverlapsApprovedBooking() throws Exception {
+        when(service.updateBooking(anyLong(), anyLong(), anyBoolean()))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                        new SQLException("ERROR: conflicting key value violates exclusion constraint " +
+                                "\"ex_bookings_approved_overlap\"", "23P01")));
+
+        mvc.perform(patch("/bookings/{id}", 4)
+                .param("approved", "true")
+                .header("X-Sharer-User-Id", "1")
+                .characterEncoding(StandardCharsets.UTF_8)
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.error", is("Вещь уже забронирована на эти даты")));
+    }
+
     @Test
     void updateBookingNotFound() throws Exception {
         when(service.updateBooking(1L, 1L, true))
@@ -207,4 +269,41 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.name", is(bookingFullDto.getItem().getName())));
     }
 
-}
\ No newline at end of file
+    @Test
+    void findUserBookingsAfterCursor() throws Exception {
+        Cursor cursor = new Cursor(end, 10L);
+        when(service.findUserBookings(eq(1L), eq("ALL"), any(Cursor.class), eq(1)))
+                .thenReturn(List.of(bookingFullDto));
+
+        mvc.perform(get("/bookings")
+                .header("X-Sharer-User-Id", "1")
+                .param("size", "1")
+                .param("cursor", cursor.encode())
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(Cursor.HEADER, new Cursor(start, bookingFullDto.getId()).encode()));
+    }
+
+    @Test
+    void findOwnerBookingsLastPageHasNoCursor() throws Exception {
+        when(service.findOwnerBookings(anyLong(), anyString(), anyInt(), anyInt()))
+                .thenReturn(List.of(bookingFullDto));
+
+        mvc.perform(get("/bookings/owner")
+                .header("X-Sharer-User-Id", "1")
+                .param("size", "2")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(Cursor.HEADER));
+    }
+
+    @Test
+    void findOwnerBookingsInvalidCursor() throws Exception {
+        mvc.perform(get("/bookings/owner")
+                .header("X-Sharer-User-Id", "1")
+                .param("cursor", "не курсор")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -1,21 +1,33 @@
 package ru.practicum.shareit.booking;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingFullDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserLookup;
 
 import java.time.LocalDateTime;
-import java.util.Optional;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
-@DataJpaTest
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({BookingServiceImpl.class, UserLookup.class, ItemAvailabilityIndex.class})
 class BookingRepositoryTest {
 
     @Autowired
@@ -24,6 +36,9 @@ class BookingRepositoryTest {
     @Autowired
     private BookingRepository repository;
 
+    @Autowired
+    private BookingService bookingService;
+
     private User owner = new User();
 
     private User booker = new User();
@@ -54,7 +69,7 @@ class BookingRepositoryTest {
         booker.setEmail("dimano@yandex.ru");
         bookerId = em.persist(booker).getId();
 
-        LocalDateTime lastStart = LocalDateTime.now().minusDays(10);
+        LocalDateTime lastStart = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).minusDays(10);
         LocalDateTime lastEnd = lastStart.plusDays(7);
 
         lastBooking.setItemId(itemId);
@@ -64,7 +79,7 @@ class BookingRepositoryTest {
         lastBooking.setStatus(BookingStatus.APPROVED);
         em.persist(lastBooking);
 
-        LocalDateTime nextStart = LocalDateTime.now().plusDays(1);
+        LocalDateTime nextStart = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
         LocalDateTime nextEnd = nextStart.plusDays(7);
 
         nextBooking.setItemId(itemId);
@@ -77,32 +92,200 @@ class BookingRepositoryTest {
 
     @Test
     void findAllByOwnerId() {
-        Page<Booking> foundBookings = repository
-                .findAllByOwnerId(ownerId, "ALL", LocalDateTime.now(), PageRequest.of(0, 20));
-        assertThat(foundBookings).hasSize(2);
+        Slice<Booking> foundBookings = repository.findAllByOwnerId(ownerId, PageRequest.of(0, 20));
+        assertThat(foundBookings).containsExactly(nextBooking, lastBooking);
+    }
+
+    @Test
+    void findAllByOwnerIdByState() {
+        LocalDateTime now = LocalDateTime.now();
+        PageRequest pageRequest = PageRequest.of(0, 20);
+        assertThat(repository.findAllByOwnerIdAndEndBefore(ownerId, now, pageRequest))
+                .containsExactly(lastBooking);
+        assertThat(repository.findAllByOwnerIdAndStartAfter(ownerId, now, pageRequest))
+                .containsExactly(nextBooking);
+        assertThat(repository.findAllByOwnerIdAndStartBeforeAndEndAfter(
+                ownerId, lastBooking.getStart().plusDays(1), lastBooking.getStart().plusDays(1), pageRequest))
+                .containsExactly(lastBooking);
+        assertThat(repository.findAllByOwnerIdAndStatus(ownerId, BookingStatus.WAITING, pageRequest))
+                .containsExactly(nextBooking);
+        assertThat(repository.findAllByOwnerIdAndStatus(ownerId, BookingStatus.REJECTED, pageRequest))
+                .isEmpty();
+        assertThat(repository.findAllByOwnerId(bookerId, pageRequest)).isEmpty();
+    }
+
+    @Test
+    void findLastAndNextBookingsArePresent() {
+        List<Booking> foundBookings = repository.findLastAndNextBookings(
+                List.of(itemId), ownerId, LocalDateTime.now());
+        assertThat(foundBookings).containsExactlyInAnyOrder(lastBooking, nextBooking);
+    }
+
+    @Test
+    void findLastAndNextBookingsLastIsEmpty() {
+        List<Booking> foundBookings = repository.findLastAndNextBookings(
+                List.of(itemId), ownerId, LocalDateTime.now().minusDays(11));
+        assertThat(foundBookings).containsExactly(nextBooking);
+    }
+
+    @Test
+    void findLastAndNextBookingsNextIsEmpty() {
+        List<Booking> foundBookings = repository.findLastAndNextBookings(
+                List.of(itemId), ownerId, LocalDateTime.now().plusDays(11));
+        assertThat(foundBookings).containsExactly(lastBooking);
+    }
+
+    @Test
+    void findLastAndNextBookingsExcludesUserBookings() {
+        List<Booking> foundBookings = repository.findLastAndNextBookings(
+                List.of(itemId), bookerId, LocalDateTime.now());
+        assertThat(foundBookings).isEmpty();
+    }
+
+    @Test
+    void existsApprovedOverlapWithApprovedBooking() {
+        LocalDateTime start = lastBooking.getStart();
+        assertThat(repository.existsApprovedOverlap(itemId, start.minusDays(1), start.plusDays(1))).isTrue();
+        assertThat(repository.existsApprovedOverlap(itemId, start.plusDays(1), start.plusDays(2))).isTrue();
+        assertThat(repository.existsApprovedOverlap(itemId, start.minusDays(1), start.plusDays(30))).isTrue();
+    }
+
+    @Test
+    void existsApprovedOverlapIgnoresAdjacentAndNotApprovedBookings() {
+        assertThat(repository.existsApprovedOverlap(
+                itemId, lastBooking.getEnd(), lastBooking.getEnd().plusDays(1))).isFalse();
+        assertThat(repository.existsApprovedOverlap(
+                itemId, lastBooking.getStart().minusDays(1), lastBooking.getStart())).isFalse();
+        assertThat(repository.existsApprovedOverlap(
+                itemId, nextBooking.getStart(), nextBooking.getEnd())).isFalse();
+    }
+
+    @Test
+    void existsApprovedOverlapFindsEarlierLongBooking() {
+        Booking laterBooking = new Booking();
+        laterBooking.setItemId(itemId);
+        laterBooking.setBookerId(bookerId);
+        laterBooking.setStart(lastBooking.getEnd().plusDays(1));
+        laterBooking.setEnd(lastBooking.getEnd().plusDays(2));
+        laterBooking.setStatus(BookingStatus.APPROVED);
+        em.persist(laterBooking);
+
+        assertThat(repository.existsApprovedOverlap(
+                itemId, lastBooking.getEnd().minusHours(1), lastBooking.getEnd().plusHours(36))).isTrue();
+        assertThat(repository.existsApprovedOverlap(
+                itemId, lastBooking.getEnd(), laterBooking.getStart())).isFalse();
     }
 
     @Test
-    void findLastBookingIsPresent() {
-        Optional<Booking> foundBookings = repository.findLastBooking(itemId, ownerId, LocalDateTime.now());
-        assertThat(foundBookings.isPresent());
+    void findUserBookingsQueryCountDoesNotDependOnPageSize() {
+        givenBookingsOfManyItems(10);
+
+        Statistics statistics = statistics();
+        Collection<BookingFullDto> foundBookings = bookingService.findUserBookings(bookerId, "ALL", 0, 20);
+
+        assertThat(foundBookings).hasSize(12);
+        assertThat(foundBookings).allMatch(booking -> booking.getItem() != null && booking.getBooker() != null);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+    }
+
+    @Test
+    void findOwnerBookingsQueryCountDoesNotDependOnPageSize() {
+        givenBookingsOfManyItems(10);
+
+        Statistics statistics = statistics();
+        Collection<BookingFullDto> foundBookings = bookingService.findOwnerBookings(ownerId, "ALL", 0, 20);
+
+        assertThat(foundBookings).hasSize(12);
+        assertThat(foundBookings).allMatch(booking -> booking.getItem() != null && booking.getBooker() != null);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
     }
 
     @Test
-    void findLastBookingIsEmpty() {
-        Optional<Booking> foundBookings = repository.findLastBooking(itemId, ownerId, LocalDateTime.now().minusDays(11));
-        assertThat(foundBookings.isEmpty());
+    void findUserBookingsFullPageDoesNotCount() {
+        givenBookingsOfManyItems(10);
+
+        Statistics statistics = statistics();
+        Collection<BookingFullDto> foundBookings = bookingService.findUserBookings(bookerId, "ALL", 0, 5);
+
+        assertThat(foundBookings).hasSize(5);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
     }
 
     @Test
-    void findNextBookingIsPresent() {
-        Optional<Booking> foundBookings = repository.findNextBooking(itemId, ownerId, LocalDateTime.now());
-        assertThat(foundBookings.isPresent());
+    void findBookingsAfterCursorWalksAllPages() {
+        givenBookingsOfManyItems(10);
+        List<Booking> expected = repository.findAllByBookerId(bookerId,
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "start", "id"))).getContent();
+
+        List<Long> userPages = new ArrayList<>();
+        List<Long> ownerPages = new ArrayList<>();
+        Cursor userCursor = new Cursor(LocalDateTime.now().plusYears(100), Long.MAX_VALUE);
+        Cursor ownerCursor = userCursor;
+        for (int i = 0; i < 3; i++) {
+            List<BookingFullDto> userPage = List.copyOf(
+                    bookingService.findUserBookings(bookerId, "ALL", userCursor, 5));
+            List<BookingFullDto> ownerPage = List.copyOf(
+                    bookingService.findOwnerBookings(ownerId, "ALL", ownerCursor, 5));
+            userPage.forEach(booking -> userPages.add(booking.getId()));
+            ownerPage.forEach(booking -> ownerPages.add(booking.getId()));
+            BookingFullDto userLast = userPage.get(userPage.size() - 1);
+            BookingFullDto ownerLast = ownerPage.get(ownerPage.size() - 1);
+            userCursor = new Cursor(userLast.getStart(), userLast.getId());
+            ownerCursor = new Cursor(ownerLast.getStart(), ownerLast.getId());
+        }
+
+        List<Long> expectedIds = expected.stream().map(Booking::getId).collect(Collectors.toList());
+        assertThat(userPages).containsExactlyElementsOf(expectedIds);
+        assertThat(ownerPages).containsExactlyElementsOf(expectedIds);
+        assertThat(bookingService.findUserBookings(bookerId, "ALL", userCursor, 5)).isEmpty();
     }
 
     @Test
-    void findNextBookingIsEmpty() {
-        Optional<Booking> foundBookings = repository.findNextBooking(itemId, ownerId, LocalDateTime.now().plusDays(11));
-        assertThat(foundBookings.isEmpty());
+    void findNextByBookerIdSkipsBookingsWithSameStartAndGreaterId() {
+        Booking sameStart = new Booking();
+        sameStart.setItemId(itemId);
+        sameStart.setBookerId(bookerId);
+        sameStart.setStart(nextBooking.getStart());
+        sameStart.setEnd(nextBooking.getEnd());
+        sameStart.setStatus(BookingStatus.WAITING);
+        em.persist(sameStart);
+
+        PageRequest pageRequest = PageRequest.of(0, 20);
+        assertThat(repository.findNextByBookerId(bookerId, sameStart.getStart(), sameStart.getId(), pageRequest))
+                .containsExactly(nextBooking, lastBooking);
+        assertThat(repository.findNextByOwnerIdAndStatus(
+                ownerId, BookingStatus.WAITING, sameStart.getStart(), sameStart.getId(), pageRequest))
+                .containsExactly(nextBooking);
+        assertThat(repository.findNextByBookerIdAndEndBefore(
+                bookerId, LocalDateTime.now(), sameStart.getStart(), sameStart.getId(), pageRequest))
+                .containsExactly(lastBooking);
+    }
+
+    private void givenBookingsOfManyItems(int count) {
+        for (int i = 0; i < count; i++) {
+            Item otherItem = new Item();
+            otherItem.setName("Перфоратор " + i);
+            otherItem.setDescription("Инструмент для сверления бетона");
+            otherItem.setAvailable(true);
+            otherItem.setOwner(ownerId);
+            em.persist(otherItem);
+
+            Booking booking = new Booking();
+            booking.setItemId(otherItem.getId());
+            booking.setBookerId(bookerId);
+            booking.setStart(LocalDateTime.now().plusDays(i + 20));
+            booking.setEnd(LocalDateTime.now().plusDays(i + 21));
+            booking.setStatus(BookingStatus.WAITING);
+            em.persist(booking);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = em.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
     }
-}
\ No newline at end of file
+}
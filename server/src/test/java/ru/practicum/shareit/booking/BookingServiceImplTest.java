@@ -3,17 +3,25 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.PageImpl;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingFullDto;
+import ru.practicum.shareit.booking.dto.IntervalDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.exception.ValidationException;
 import ru.practicum.shareit.item.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserLookup;
 import ru.practicum.shareit.user.UserRepository;
 
 import javax.persistence.EntityManager;
@@ -22,6 +30,7 @@ import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.allOf;
 import static org.hamcrest.CoreMatchers.notNullValue;
@@ -119,6 +128,183 @@ class BookingServiceImplTest {
         assertThat(service.findUserBookings(user.getId(), "REJECTED", 0, 20), hasSize(0));
     }
 
+    @Test
+    void getItemAvailabilityReturnsBusyAndFreePeriods() {
+        // given
+        givenUserBookings();
+        Booking approved = makeBooking(
+                user.getId(), item.getId(), now.plusDays(10), now.plusDays(12), BookingStatus.APPROVED);
+        em.persist(approved);
+        em.flush();
+
+        // when
+        ItemAvailabilityDto availability = service.getItemAvailability(
+                item.getId(), user.getId(), now.plusDays(5), now.plusDays(20));
+
+        // then
+        assertThat(availability.getBusy(), contains(new IntervalDto(approved.getStart(), approved.getEnd())));
+        assertThat(availability.getFree(), contains(
+                new IntervalDto(now.plusDays(5), approved.getStart()),
+                new IntervalDto(approved.getEnd(), now.plusDays(20))));
+    }
+
+    @Test
+    void saveBookingsReportsResultPerEntry() {
+        // given
+        givenUserBookings();
+        LocalDateTime start = now.plusDays(30);
+        List<BookingDto> bookingDtos = List.of(
+                new BookingDto(item.getId(), now.minusDays(13), now.minusDays(12)),
+                new BookingDto(item.getId(), start, start.plusDays(1)),
+                new BookingDto(item.getId() + 1000, start, start.plusDays(1)),
+                new BookingDto(item.getId(), start.plusDays(1), start),
+                new BookingDto(item.getId(), start.plusDays(2), start.plusDays(3)));
+
+        // when
+        List<BookingBatchResultDto> results = service.saveBookings(bookingDtos, user.getId());
+
+        // then
+        assertThat(results, contains(
+                hasProperty("index", equalTo(0)),
+                hasProperty("index", equalTo(1)),
+                hasProperty("index", equalTo(2)),
+                hasProperty("index", equalTo(3)),
+                hasProperty("index", equalTo(4))));
+        assertThat(results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()),
+                contains(400, 201, 404, 400, 201));
+        Assertions.assertEquals("Вещь (id = " + item.getId() + ") уже забронирована на эти даты",
+                results.get(0).getError());
+        Assertions.assertEquals(BookingStatus.WAITING, results.get(1).getBooking().getStatus());
+        Assertions.assertEquals("Вещь (id = " + (item.getId() + 1000) + ") не найдена", results.get(2).getError());
+        Assertions.assertEquals("Неверный период брони вещи (id = " + item.getId() + ")", results.get(3).getError());
+        assertThat(service.findUserBookings(user.getId(), "ALL", 0, 20), hasSize(sourceBookings.size() + 2));
+    }
+
+    @Test
+    void decideBookingsReportsResultPerEntryAndDetectsConflictsInsideBatch() {
+        // given
+        givenUserBookings();
+        Booking waiting = sourceBookings.get(2);
+        Booking overlapping = makeBooking(user.getId(), item.getId(),
+                waiting.getStart().plusDays(1), waiting.getEnd().plusDays(1), BookingStatus.WAITING);
+        em.persist(overlapping);
+        Booking rejected = makeBooking(user.getId(), item.getId(),
+                waiting.getStart(), waiting.getEnd(), BookingStatus.WAITING);
+        em.persist(rejected);
+        em.flush();
+        List<BookingDecisionDto> decisions = List.of(
+                new BookingDecisionDto(waiting.getId(), true),
+                new BookingDecisionDto(overlapping.getId(), true),
+                new BookingDecisionDto(rejected.getId(), false),
+                new BookingDecisionDto(waiting.getId(), false),
+                new BookingDecisionDto(sourceBookings.get(1).getId(), false),
+                new BookingDecisionDto(rejected.getId() + 1000, true));
+
+        // when
+        List<BookingBatchResultDto> results = service.decideBookings(decisions, owner.getId());
+        em.clear();
+
+        // then
+        assertThat(results.stream().map(BookingBatchResultDto::getStatus).collect(Collectors.toList()),
+                contains(200, 400, 200, 400, 400, 404));
+        Assertions.assertEquals(BookingStatus.APPROVED, results.get(0).getBooking().getStatus());
+        Assertions.assertEquals("Вещь (id = " + item.getId() + ") уже забронирована на эти даты",
+                results.get(1).getError());
+        Assertions.assertEquals(BookingStatus.REJECTED, results.get(2).getBooking().getStatus());
+        Assertions.assertEquals("Решение по брони (id = " + waiting.getId() + ") уже есть в пакете",
+                results.get(3).getError());
+        Assertions.assertEquals("Статус брони отличен от WAITING", results.get(4).getError());
+        Assertions.assertEquals("Бронь (id = " + (rejected.getId() + 1000) + ") не найдена",
+                results.get(5).getError());
+        Assertions.assertEquals(BookingStatus.APPROVED, em.find(Booking.class, waiting.getId()).getStatus());
+        Assertions.assertEquals(BookingStatus.WAITING, em.find(Booking.class, overlapping.getId()).getStatus());
+        Assertions.assertEquals(BookingStatus.REJECTED, em.find(Booking.class, rejected.getId()).getStatus());
+    }
+
+    @Test
+    void decideBookingsRejectsWhenItemIsNotAvailable() {
+        // given
+        givenUserBookings();
+        Booking waiting = sourceBookings.get(2);
+        item.setAvailable(false);
+        em.flush();
+
+        // when
+        List<BookingBatchResultDto> results = service.decideBookings(
+                List.of(new BookingDecisionDto(waiting.getId(), false)), owner.getId());
+
+        // then
+        Assertions.assertEquals(200, results.get(0).getStatus());
+        Assertions.assertEquals(BookingStatus.REJECTED, results.get(0).getBooking().getStatus());
+    }
+
+    @Test
+    void decideBookingsRollsBackWhenStatusChangedConcurrently() {
+        // given
+        BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
+        ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
+        UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
+        BookingServiceImpl bookingService =
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
+
+        givenBookings(1L, 2L);
+        booking.setStatus(BookingStatus.WAITING);
+
+        Mockito
+                .when(mockUserRepository.findById(1L))
+                .thenReturn(Optional.of(user));
+
+        Mockito
+                .when(mockBookingRepository.findAllById(Mockito.any()))
+                .thenReturn(List.of(booking));
+
+        Mockito
+                .when(mockItemRepository.findAllById(Mockito.any()))
+                .thenReturn(List.of(item));
+
+        Mockito
+                .when(mockBookingRepository.updateWaitingStatus(List.of(1L), BookingStatus.REJECTED))
+                .thenReturn(0);
+
+        // when
+        ConflictException conflictException = Assertions.assertThrows(
+                ConflictException.class,
+                () -> bookingService.decideBookings(List.of(new BookingDecisionDto(1L, false)), 1L));
+
+        // then
+        assertThat(conflictException.getMessage(), startsWith("Статус части броней изменился"));
+    }
+
+    @Test
+    void getItemAvailabilityWindowIsEmpty() {
+        // given
+        BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
+        ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
+        UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
+        BookingServiceImpl bookingService =
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
+
+        givenBookings();
+
+        Mockito
+                .when(mockUserRepository.findById(1L))
+                .thenReturn(Optional.of(user));
+
+        Mockito
+                .when(mockItemRepository.findById(1L))
+                .thenReturn(Optional.of(item));
+
+        // when
+        ValidationException validationException = Assertions.assertThrows(
+                ValidationException.class,
+                () -> bookingService.getItemAvailability(1L, 1L, now.minusDays(2), now.minusDays(1)));
+
+        // then
+        assertThat(validationException.getMessage(), startsWith("Конец окна календаря"));
+    }
+
     private void givenBookings(int startPlus, int endPlus, boolean available, long ownerId, long bookerId) {
         user = makeUser("dimano@mail.ru", "Dima");
         user.setId(1L);
@@ -155,7 +341,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings();
 
@@ -181,7 +368,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings();
 
@@ -211,7 +399,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings(false);
 
@@ -241,7 +430,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings();
 
@@ -271,7 +461,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings(2L);
 
@@ -286,9 +477,9 @@ class BookingServiceImplTest {
                 .thenReturn(Optional.of(item));
 
         Mockito
-                .when(mockBookingRepository.findByItemIdAndStatusAndStartBeforeAndEndAfter(
-                        Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any()))
-                .thenReturn(List.of(booking));
+                .when(mockBookingRepository.existsApprovedOverlap(
+                        Mockito.anyLong(), Mockito.any(), Mockito.any()))
+                .thenReturn(true);
 
         // when
         ValidationException validationException = Assertions.assertThrows(
@@ -306,7 +497,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings(2L);
 
@@ -321,14 +513,9 @@ class BookingServiceImplTest {
                 .thenReturn(Optional.of(item));
 
         Mockito
-                .when(mockBookingRepository.findByItemIdAndStatusAndStartBeforeAndEndAfter(
-                        Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any()))
-                .thenReturn(List.of(booking));
-
-        Mockito
-                .when(mockBookingRepository.findByItemIdAndStatusAndStartBeforeAndEndAfter(
-                        Mockito.anyLong(), Mockito.any(), Mockito.any(), Mockito.any()))
-                .thenReturn(List.of());
+                .when(mockBookingRepository.existsApprovedOverlap(
+                        Mockito.anyLong(), Mockito.any(), Mockito.any()))
+                .thenReturn(false);
 
         Mockito
                 .when(mockBookingRepository.save(Mockito.any()))
@@ -348,7 +535,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings(1L, 2L);
 
@@ -380,7 +568,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings(1L, 2L);
 
@@ -414,7 +603,7 @@ class BookingServiceImplTest {
         booking.setStatus(BookingStatus.WAITING);
 
         Mockito
-                .when(mockBookingRepository.save(Mockito.any()))
+                .when(mockBookingRepository.saveAndFlush(Mockito.any()))
                 .thenReturn(booking);
 
         BookingFullDto bookingFullDto = bookingService.updateBooking(1L, 1L, true).get();
@@ -428,7 +617,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings(1L, 2L);
 
@@ -461,7 +651,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings(1L, 2L);
         booking.setStatus(BookingStatus.WAITING);
@@ -479,7 +670,7 @@ class BookingServiceImplTest {
                 .thenReturn(Optional.of(booking));
 
         Mockito
-                .when(mockBookingRepository.save(Mockito.any()))
+                .when(mockBookingRepository.saveAndFlush(Mockito.any()))
                 .thenReturn(booking);
 
         // when
@@ -489,6 +680,44 @@ class BookingServiceImplTest {
         Assertions.assertEquals(booking.getStatus(), bookingFullDto.getStatus());
     }
 
+    @Test
+    void updateBookingRejectsWhenItemIsNotAvailable() {
+        // given
+        BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
+        ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
+        UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
+        BookingServiceImpl bookingService =
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
+
+        givenBookings(5, 10, false, 1L, 2L);
+        booking.setStatus(BookingStatus.WAITING);
+
+        Mockito
+                .when(mockUserRepository.findById(Mockito.anyLong()))
+                .thenReturn(Optional.of(user));
+
+        Mockito
+                .when(mockItemRepository.findById(Mockito.anyLong()))
+                .thenReturn(Optional.of(item));
+
+        Mockito
+                .when(mockBookingRepository.findById(1L))
+                .thenReturn(Optional.of(booking));
+
+        Mockito
+                .when(mockBookingRepository.saveAndFlush(Mockito.any()))
+                .thenReturn(booking);
+
+        // when
+        BookingFullDto bookingFullDto = bookingService.updateBooking(1L, 1L, false).get();
+
+        // then
+        Assertions.assertEquals(BookingStatus.REJECTED, bookingFullDto.getStatus());
+        Mockito.verify(mockBookingRepository, Mockito.never())
+                .existsApprovedOverlap(Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
+
     @Test
     void findOwnerBookingsUnknownStateLAST() {
         // given
@@ -496,7 +725,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings(1L,2L);
 
@@ -521,6 +751,35 @@ class BookingServiceImplTest {
         Assertions.assertEquals("Unknown state: LAST", validationException.getMessage());
     }
 
+    @Test
+    void findBookingsRejectUnknownStateOnEveryListing() {
+        // given
+        BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
+        ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
+        UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
+        BookingServiceImpl bookingService =
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
+        Mockito
+                .when(mockUserRepository.findById(Mockito.anyLong()))
+                .thenReturn(Optional.of(makeUser("dimano@mail.ru", "Dima")));
+        Cursor cursor = new Cursor(now, Long.MAX_VALUE);
+
+        // when
+        List<Executable> listings = List.of(
+                () -> bookingService.findUserBookings(1L, "all", 0, 20),
+                () -> bookingService.findOwnerBookings(1L, "all", 0, 20),
+                () -> bookingService.findUserBookings(1L, "all", cursor, 20),
+                () -> bookingService.findOwnerBookings(1L, "all", cursor, 20));
+
+        // then
+        for (Executable listing : listings) {
+            ValidationException validationException = Assertions.assertThrows(ValidationException.class, listing);
+            Assertions.assertEquals("Unknown state: all", validationException.getMessage());
+        }
+        Mockito.verifyNoInteractions(mockBookingRepository);
+    }
+
     @Test
     void findOwnerBookingsIsOk() {
         // given
@@ -528,7 +787,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings(1L,2L);
         List<Booking> sourceBookings = List.of(
@@ -546,16 +806,19 @@ class BookingServiceImplTest {
                 .thenReturn(Optional.of(user));
 
         Mockito
-                .when(mockItemRepository.findById(Mockito.anyLong()))
-                .thenReturn(Optional.of(item));
+                .when(mockUserRepository.findAllById(Mockito.any()))
+                .thenReturn(List.of(user));
+
+        Mockito
+                .when(mockItemRepository.findAllById(Mockito.any()))
+                .thenReturn(List.of(item));
 
         Mockito
                 .when(mockBookingRepository.findById(1L))
                 .thenReturn(Optional.of(booking));
 
         Mockito
-                .when(mockBookingRepository.findAllByOwnerId(
-                        Mockito.anyLong(), Mockito.anyString(), Mockito.any(), Mockito.any()))
+                .when(mockBookingRepository.findAllByOwnerId(Mockito.anyLong(), Mockito.any()))
                 .thenReturn(new PageImpl<>(sourceBookings));
 
         // when
@@ -567,7 +830,8 @@ class BookingServiceImplTest {
         for (Booking sourceBooking : sourceBookings) {
             assertThat(targetBookings, hasItem(allOf(
                     hasProperty("id", notNullValue()),
-                    hasProperty("status", equalTo(sourceBooking.getStatus()))
+                    hasProperty("status", equalTo(sourceBooking.getStatus())),
+                    hasProperty("item", equalTo(item))
             )));
         }
     }
@@ -579,7 +843,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings(1L, 2L);
 
@@ -611,7 +876,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings(1L, 2L);
 
@@ -643,7 +909,8 @@ class BookingServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         BookingServiceImpl bookingService =
-                new BookingServiceImpl(mockBookingRepository, mockItemRepository, mockUserRepository);
+                new BookingServiceImpl(mockBookingRepository, mockItemRepository, new UserLookup(mockUserRepository),
+                        new ItemAvailabilityIndex(mockBookingRepository, "maximumSize=100"));
 
         givenBookings(1L, 2L);
 
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dto.IntervalDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ItemAvailabilityIndexTest {
+
+    private final BookingRepository repository = Mockito.mock(BookingRepository.class);
+
+    private final ItemAvailabilityIndex index = new ItemAvailabilityIndex(repository, "maximumSize=100");
+
+    private final LocalDateTime now = LocalDateTime.now().withNano(0);
+
+    @Test
+    void findBusyClipsPeriodsToWindowAndMergesAdjacentBookings() {
+        // given
+        Mockito
+                .when(repository.findAllByItemIdAndStatusAndEndAfter(
+                        Mockito.eq(1L), Mockito.eq(BookingStatus.APPROVED), Mockito.any()))
+                .thenReturn(List.of(
+                        makeBooking(now.plusDays(1), now.plusDays(3)),
+                        makeBooking(now.plusDays(3), now.plusDays(4)),
+                        makeBooking(now.plusDays(6), now.plusDays(8)),
+                        makeBooking(now.plusDays(10), now.plusDays(12))));
+
+        // when
+        List<IntervalDto> busy = index.findBusy(1L, now.plusDays(2), now.plusDays(7));
+
+        // then
+        assertThat(busy, contains(
+                new IntervalDto(now.plusDays(2), now.plusDays(4)),
+                new IntervalDto(now.plusDays(6), now.plusDays(7))));
+    }
+
+    @Test
+    void findBusyLoadsCalendarOnceAndReloadsItAfterApprove() {
+        // given
+        Mockito
+                .when(repository.findAllByItemIdAndStatusAndEndAfter(
+                        Mockito.eq(1L), Mockito.eq(BookingStatus.APPROVED), Mockito.any()))
+                .thenReturn(List.of(makeBooking(now.plusDays(1), now.plusDays(2))))
+                .thenReturn(List.of(
+                        makeBooking(now.plusDays(1), now.plusDays(2)),
+                        makeBooking(now.plusDays(5), now.plusDays(6))));
+        index.findBusy(1L, now, now.plusDays(10));
+        index.findBusy(1L, now, now.plusDays(10));
+
+        // when
+        index.approve(makeBooking(now.plusDays(5), now.plusDays(6)));
+        List<IntervalDto> busy = index.findBusy(1L, now, now.plusDays(10));
+
+        // then
+        assertThat(busy, contains(
+                new IntervalDto(now.plusDays(1), now.plusDays(2)),
+                new IntervalDto(now.plusDays(5), now.plusDays(6))));
+        Mockito.verify(repository, Mockito.times(2))
+                .findAllByItemIdAndStatusAndEndAfter(Mockito.eq(1L), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void approveInsideTransactionKeepsCalendarUntilCommit() {
+        // given
+        Mockito
+                .when(repository.findAllByItemIdAndStatusAndEndAfter(
+                        Mockito.eq(1L), Mockito.eq(BookingStatus.APPROVED), Mockito.any()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(makeBooking(now.plusDays(5), now.plusDays(6))));
+        index.findBusy(1L, now, now.plusDays(10));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // when
+            index.approve(makeBooking(now.plusDays(5), now.plusDays(6)));
+
+            // then
+            assertThat(index.findBusy(1L, now, now.plusDays(10)), empty());
+
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(TransactionSynchronization::afterCommit);
+            assertThat(index.findBusy(1L, now, now.plusDays(10)), contains(
+                    new IntervalDto(now.plusDays(5), now.plusDays(6))));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void approveDoesNotLoadCalendar() {
+        // when
+        index.approve(makeBooking(now.plusDays(5), now.plusDays(6)));
+
+        // then
+        Mockito.verifyNoInteractions(repository);
+    }
+
+    private Booking makeBooking(LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItemId(1L);
+        booking.setBookerId(2L);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(BookingStatus.APPROVED);
+        return booking;
+    }
+}
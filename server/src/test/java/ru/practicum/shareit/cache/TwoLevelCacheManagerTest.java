@@ -0,0 +1,100 @@
+package ru.practicum.shareit.cache;
+
+import com.github.benmanes.caffeine.cache.CaffeineSpec;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TwoLevelCacheManagerTest {
+    private final SharedCacheTier sharedTier = new InMemorySharedCacheTier();
+
+    private Cache firstNode;
+
+    private Cache secondNode;
+
+    @BeforeEach
+    void setUp() {
+        firstNode = node(sharedTier).getCache(CacheConfig.USERS);
+        secondNode = node(sharedTier).getCache(CacheConfig.USERS);
+    }
+
+    @Test
+    void valuePutOnOneNodeIsReadOnAnother() {
+        User user = makeUser(1L, "Dima");
+
+        firstNode.put(1L, user);
+
+        assertThat(secondNode.get(1L, User.class)).isEqualTo(user);
+        assertThat(sharedTier.get(CacheConfig.USERS, "1")).isEqualTo(user);
+    }
+
+    @Test
+    void evictOnOneNodeInvalidatesNearCacheOfAnother() {
+        firstNode.put(1L, makeUser(1L, "Dima"));
+        assertThat(secondNode.get(1L)).isNotNull();
+
+        firstNode.evict(1L);
+
+        assertThat(secondNode.get(1L)).isNull();
+        assertThat(sharedTier.get(CacheConfig.USERS, "1")).isNull();
+    }
+
+    @Test
+    void clearOnOneNodeInvalidatesAllNearCaches() {
+        firstNode.put(1L, makeUser(1L, "Dima"));
+        firstNode.put(2L, makeUser(2L, "DN"));
+        secondNode.get(1L);
+        secondNode.get(2L);
+
+        firstNode.clear();
+
+        assertThat(secondNode.get(1L)).isNull();
+        assertThat(secondNode.get(2L)).isNull();
+    }
+
+    @Test
+    void valueLoaderIsCalledOnceAcrossNodes() {
+        User user = makeUser(1L, "Dima");
+
+        assertThat(firstNode.get(1L, () -> user)).isEqualTo(user);
+        assertThat(secondNode.<User>get(1L, () -> {
+            throw new IllegalStateException("значение должно найтись в общем уровне");
+        })).isEqualTo(user);
+    }
+
+    @Test
+    void nearCacheOnlyWithoutSharedTier() {
+        Cache local = node(null).getCache(CacheConfig.USERS);
+
+        local.put(1L, makeUser(1L, "Dima"));
+
+        assertThat(local.get(1L)).isNotNull();
+        assertThat(secondNode.get(1L)).isNull();
+    }
+
+    @Test
+    void nullValuesAreNotCached() {
+        assertThatThrownBy(() -> firstNode.put(1L, null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static TwoLevelCacheManager node(SharedCacheTier sharedTier) {
+        TwoLevelCacheManager cacheManager = new TwoLevelCacheManager(
+                List.of(CacheConfig.USERS), CaffeineSpec.parse("maximumSize=100"), sharedTier);
+        cacheManager.afterPropertiesSet();
+        return cacheManager;
+    }
+
+    private static User makeUser(long id, String name) {
+        User user = new User();
+        user.setId(id);
+        user.setName(name);
+        user.setEmail(name.toLowerCase() + "@mail.ru");
+        return user;
+    }
+}
@@ -6,10 +6,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingService;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.IntervalDto;
+import ru.practicum.shareit.booking.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.cache.HttpCacheConfig;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemFullDto;
@@ -17,23 +24,30 @@ import ru.practicum.shareit.item.model.Item;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ItemController.class)
+@Import(HttpCacheConfig.class)
 class ItemControllerTest {
 
     @MockBean
     private ItemService service;
 
+    @MockBean
+    private BookingService bookingService;
+
     @Autowired
     private ObjectMapper mapper;
 
@@ -83,7 +97,7 @@ class ItemControllerTest {
 
     @Test
     void findUserItems() throws Exception {
-        when(service.findUserItems(anyLong()))
+        when(service.findUserItems(anyLong(), anyLong(), anyInt()))
                 .thenReturn(List.of(itemFullDto));
 
         mvc.perform(get("/items")
@@ -92,6 +106,7 @@ class ItemControllerTest {
                 .contentType(MediaType.APPLICATION_JSON)
                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
                 .andExpect(jsonPath("$", hasSize(1)))
                 .andExpect(jsonPath("$[0].id", is(item.getId()), Long.class))
                 .andExpect(jsonPath("$[0].name", is(item.getName())))
@@ -111,6 +126,112 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].comments[0].authorName", is(commentDto.getAuthorName())));
     }
 
+    @Test
+    void findUserItemsWritesLargePageInBatches() throws Exception {
+        when(service.findUserItems(1, 0, ItemController.STREAMING_BATCH_SIZE))
+                .thenReturn(Collections.nCopies(ItemController.STREAMING_BATCH_SIZE, itemFullDto));
+        when(service.findUserItems(1, item.getId(), 1))
+                .thenReturn(List.of(itemFullDto));
+
+        mvc.perform(get("/items")
+                .header("X-Sharer-User-Id", "1")
+                .param("size", String.valueOf(ItemController.STREAMING_BATCH_SIZE + 1))
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$", hasSize(ItemController.STREAMING_BATCH_SIZE + 1)))
+                .andExpect(jsonPath("$[100].id", is(item.getId()), Long.class));
+        verify(service, times(2)).findUserItems(anyLong(), anyLong(), anyInt());
+    }
+
+    @Test
+    void getItemAvailability() throws Exception {
+        ItemAvailabilityDto availability = new ItemAvailabilityDto(item.getId(), start, end, true,
+                List.of(new IntervalDto(start.plusDays(1), start.plusDays(2))),
+                List.of(new IntervalDto(start, start.plusDays(1)), new IntervalDto(start.plusDays(2), end)));
+        when(bookingService.getItemAvailability(item.getId(), 1L, start, end))
+                .thenReturn(availability);
+
+        mvc.perform(get("/items/{id}/availability", item.getId())
+                .header("X-Sharer-User-Id", "1")
+                .param("from", start.toString())
+                .param("to", end.toString())
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId", is(item.getId()), Long.class))
+                .andExpect(jsonPath("$.available", is(true)))
+                .andExpect(jsonPath("$.busy", hasSize(1)))
+                .andExpect(jsonPath("$.busy[0].start", is(start.plusDays(1).toString())))
+                .andExpect(jsonPath("$.free", hasSize(2)))
+                .andExpect(jsonPath("$.free[1].end", is(end.toString())));
+    }
+
+    @Test
+    void streamUserItems() throws Exception {
+        when(service.findUserItems(1L, 0L, 1))
+                .thenReturn(List.of(itemFullDto));
+        when(service.findUserItems(1L, item.getId(), 1))
+                .thenReturn(List.of());
+
+        MvcResult result = mvc.perform(get("/items")
+                .header("X-Sharer-User-Id", "1")
+                .param("size", "1")
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().bytes((mapper.writeValueAsString(itemFullDto) + "\n")
+                        .getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void streamUserItemsCapsBatchSize() throws Exception {
+        when(service.findUserItems(1L, 0L, ItemController.STREAMING_BATCH_SIZE))
+                .thenReturn(List.of(itemFullDto));
+
+        MvcResult result = mvc.perform(get("/items")
+                .header("X-Sharer-User-Id", "1")
+                .param("size", "100000")
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk());
+        verify(service).findUserItems(1L, 0L, ItemController.STREAMING_BATCH_SIZE);
+    }
+
+    @Test
+    void findUserItemsRejectsNonPositiveSize() throws Exception {
+        mvc.perform(get("/items")
+                .header("X-Sharer-User-Id", "1")
+                .param("size", "0")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Размер страницы (0) должен быть положительным")));
+        verifyNoInteractions(service);
+    }
+
+    @Test
+    void streamUserItemsRejectsNonPositiveSize() throws Exception {
+        MvcResult result = mvc.perform(get("/items")
+                .header("X-Sharer-User-Id", "1")
+                .param("size", "-1")
+                .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andExpect(jsonPath("$.error", is("Размер страницы (-1) должен быть положительным")));
+        verifyNoInteractions(service);
+    }
+
     @Test
     void createItem() throws Exception {
         when(service.saveItem(any(), anyLong()))
@@ -236,7 +357,7 @@ class ItemControllerTest {
 
     @Test
     void searchItems() throws Exception {
-        when(service.searchItems(anyString()))
+        when(service.searchItems(anyString(), isNull(), isNull(), anyInt(), anyInt()))
                 .thenReturn(List.of(item));
 
         mvc.perform(get("/items/search")
@@ -255,6 +376,22 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].owner", is(item.getOwner()), Long.class));
     }
 
+    @Test
+    void searchItemsFreeForPeriod() throws Exception {
+        when(service.searchItems("дрель", start, end, 0, 20))
+                .thenReturn(List.of(item));
+
+        mvc.perform(get("/items/search")
+                .header("X-Sharer-User-Id", "1")
+                .param("text", "дрель")
+                .param("start", start.toString())
+                .param("end", end.toString())
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(item.getId()), Long.class));
+    }
+
     @Test
     void addItemCommentIsOk() throws Exception {
         when(service.addItemComment(anyLong(), anyLong(), any()))
@@ -5,10 +5,15 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.User;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -39,7 +44,77 @@ class ItemRepositoryTest {
 
     @Test
     void search() {
-        Collection<Item> foundItems = repository.search("дрель");
+        Collection<Item> foundItems = repository.search("дрель", PageRequest.of(0, 20));
         assertThat(foundItems).hasSize(1);
     }
+
+    @Test
+    void searchRanksNameMatchesFirst() {
+        Item descriptionMatch = makeItem("Перфоратор", "Мощнее, чем дрель");
+        Item nameMatch = makeItem("Ударная дрель", "Инструмент для сверления бетона");
+        makeItem("Аккумуляторная дрель", "Недоступна").setAvailable(false);
+
+        List<Item> foundItems = repository.search("дрель", PageRequest.of(0, 20));
+
+        assertThat(foundItems).containsExactly(item, nameMatch, descriptionMatch);
+    }
+
+    @Test
+    void searchIsPaged() {
+        Item nameMatch = makeItem("Ударная дрель", "Инструмент для сверления бетона");
+
+        List<Item> foundItems = repository.search("дрель", PageRequest.of(1, 1));
+
+        assertThat(foundItems).containsExactly(nameMatch);
+    }
+
+    @Test
+    void searchFreeExcludesItemsWithOverlappingApprovedBooking() {
+        Item waitingOnly = makeItem("Ударная дрель", "Инструмент для сверления бетона");
+        Item bookedBefore = makeItem("Дрель-шуруповёрт", "Аккумуляторная");
+        Item booked = makeItem("Перфоратор", "Мощнее, чем дрель");
+        LocalDateTime start = LocalDateTime.of(2030, 1, 10, 12, 0);
+        LocalDateTime end = start.plusDays(3);
+        makeBooking(item, start.minusDays(2), start, BookingStatus.APPROVED);
+        makeBooking(waitingOnly, start, end, BookingStatus.WAITING);
+        makeBooking(bookedBefore, start.minusDays(1), start.plusHours(1), BookingStatus.APPROVED);
+        makeBooking(booked, start.plusDays(1), start.plusDays(2), BookingStatus.APPROVED);
+
+        List<Item> foundItems = repository.searchFree("дрель", start, end, PageRequest.of(0, 20));
+
+        assertThat(foundItems).containsExactly(item, waitingOnly);
+    }
+
+    @Test
+    void findByRequestIdIn() {
+        Item firstRequestItem = makeItem("Байдарка", "4-местная");
+        firstRequestItem.setRequestId(1L);
+        Item secondRequestItem = makeItem("Палатка", "Двухместная");
+        secondRequestItem.setRequestId(2L);
+        makeItem("Тент", "Без запроса");
+        em.flush();
+
+        List<Item> foundItems = repository.findByRequestIdIn(List.of(1L, 2L, 3L));
+
+        assertThat(foundItems).containsExactlyInAnyOrder(firstRequestItem, secondRequestItem);
+    }
+
+    private void makeBooking(Item bookedItem, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        Booking booking = new Booking();
+        booking.setItemId(bookedItem.getId());
+        booking.setBookerId(user.getId());
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(status);
+        em.persist(booking);
+    }
+
+    private Item makeItem(String name, String description) {
+        Item other = new Item();
+        other.setName(name);
+        other.setDescription(description);
+        other.setAvailable(true);
+        other.setOwner(user.getId());
+        return em.persist(other);
+    }
 }
\ No newline at end of file
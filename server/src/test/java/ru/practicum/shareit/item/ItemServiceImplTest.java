@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingRepository;
 import ru.practicum.shareit.booking.BookingStatus;
@@ -16,7 +17,9 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemFullDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserLookup;
 import ru.practicum.shareit.user.UserRepository;
 
 import javax.persistence.EntityManager;
@@ -65,7 +68,7 @@ class ItemServiceImplTest {
         em.flush();
 
         // when
-        Collection<ItemFullDto> targetItems = service.findUserItems(user.getId());
+        Collection<ItemFullDto> targetItems = service.findUserItems(user.getId(), 0, 20);
 
         // then
         assertThat(targetItems, hasSize(sourceItems.size()));
@@ -78,6 +81,82 @@ class ItemServiceImplTest {
         }
     }
 
+    @Test
+    void findUserItemsFromId() {
+        // given
+        User user = makeUser("dimano@mail.ru", "Dima");
+        em.persist(user);
+        em.flush();
+
+        List<Item> sourceItems = List.of(
+                makeItem(user.getId(), "лодка", "плавсредство"),
+                makeItem(user.getId(), "палатка", "укрытие"),
+                makeItem(user.getId(), "удочка", "инструмент для ловли рыбы")
+        );
+
+        for (Item sourceItem : sourceItems) {
+            em.persist(sourceItem);
+        }
+        em.flush();
+
+        // when
+        Collection<ItemFullDto> firstPage = service.findUserItems(user.getId(), 0, 2);
+        Collection<ItemFullDto> secondPage = service.findUserItems(user.getId(), sourceItems.get(1).getId(), 2);
+
+        // then
+        assertThat(firstPage, contains(
+                hasProperty("id", equalTo(sourceItems.get(0).getId())),
+                hasProperty("id", equalTo(sourceItems.get(1).getId()))));
+        assertThat(secondPage, contains(
+                hasProperty("id", equalTo(sourceItems.get(2).getId()))));
+    }
+
+    @Test
+    void findUserItemsWithBookingsAndComments() {
+        // given
+        User owner = makeUser("owner@mail.ru", "Owner");
+        em.persist(owner);
+        User booker = makeUser("dimano@mail.ru", "Dima");
+        em.persist(booker);
+        em.flush();
+
+        Item boat = makeItem(owner.getId(), "лодка", "плавсредство");
+        em.persist(boat);
+        Item tent = makeItem(owner.getId(), "палатка", "укрытие");
+        em.persist(tent);
+        em.flush();
+
+        LocalDateTime now = LocalDateTime.now();
+        Booking lastBooking = makeBooking(booker.getId(), boat.getId(), now.minusDays(10), now.minusDays(5),
+                BookingStatus.APPROVED);
+        em.persist(lastBooking);
+        Booking nextBooking = makeBooking(booker.getId(), boat.getId(), now.plusDays(5), now.plusDays(10),
+                BookingStatus.WAITING);
+        em.persist(nextBooking);
+
+        Comment comment = CommentMapper.toComment(
+                new CommentDto(null, "Не протекает", null, null), boat.getId(), booker.getId());
+        em.persist(comment);
+        em.flush();
+
+        // when
+        List<ItemFullDto> targetItems = List.copyOf(service.findUserItems(owner.getId(), 0, 20));
+
+        // then
+        assertThat(targetItems, hasSize(2));
+        ItemFullDto targetBoat = targetItems.get(0);
+        assertThat(targetBoat.getLastBooking(), equalTo(lastBooking));
+        assertThat(targetBoat.getNextBooking(), equalTo(nextBooking));
+        assertThat(targetBoat.getComments(), contains(allOf(
+                hasProperty("text", equalTo("Не протекает")),
+                hasProperty("authorName", equalTo("Dima"))
+        )));
+        ItemFullDto targetTent = targetItems.get(1);
+        assertThat(targetTent.getLastBooking(), nullValue());
+        assertThat(targetTent.getNextBooking(), nullValue());
+        assertThat(targetTent.getComments(), empty());
+    }
+
     private void givenItems() {
         user = makeUser("dimano@mail.ru", "Dima");
         user.setId(1L);
@@ -103,8 +182,8 @@ class ItemServiceImplTest {
         BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
         CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
         ItemServiceImpl itemService =
-                new ItemServiceImpl(mockItemRepository, mockUserRepository, mockBookingRepository,
-                        mockCommentRepository);
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, Mockito.mock(ItemSearchIndex.class), new ItemLookup(mockItemRepository));
 
         givenItems();
 
@@ -133,8 +212,8 @@ class ItemServiceImplTest {
         BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
         CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
         ItemServiceImpl itemService =
-                new ItemServiceImpl(mockItemRepository, mockUserRepository, mockBookingRepository,
-                        mockCommentRepository);
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, Mockito.mock(ItemSearchIndex.class), new ItemLookup(mockItemRepository));
 
         givenItems();
 
@@ -162,8 +241,8 @@ class ItemServiceImplTest {
         BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
         CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
         ItemServiceImpl itemService =
-                new ItemServiceImpl(mockItemRepository, mockUserRepository, mockBookingRepository,
-                        mockCommentRepository);
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, Mockito.mock(ItemSearchIndex.class), new ItemLookup(mockItemRepository));
 
         givenItems();
 
@@ -188,8 +267,8 @@ class ItemServiceImplTest {
         BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
         CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
         ItemServiceImpl itemService =
-                new ItemServiceImpl(mockItemRepository, mockUserRepository, mockBookingRepository,
-                        mockCommentRepository);
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, Mockito.mock(ItemSearchIndex.class), new ItemLookup(mockItemRepository));
 
         givenItems();
 
@@ -222,8 +301,8 @@ class ItemServiceImplTest {
         BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
         CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
         ItemServiceImpl itemService =
-                new ItemServiceImpl(mockItemRepository, mockUserRepository, mockBookingRepository,
-                        mockCommentRepository);
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, Mockito.mock(ItemSearchIndex.class), new ItemLookup(mockItemRepository));
 
         givenItems();
 
@@ -257,8 +336,8 @@ class ItemServiceImplTest {
         BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
         CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
         ItemServiceImpl itemService =
-                new ItemServiceImpl(mockItemRepository, mockUserRepository, mockBookingRepository,
-                        mockCommentRepository);
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, Mockito.mock(ItemSearchIndex.class), new ItemLookup(mockItemRepository));
 
         givenItems();
 
@@ -288,8 +367,8 @@ class ItemServiceImplTest {
         BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
         CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
         ItemServiceImpl itemService =
-                new ItemServiceImpl(mockItemRepository, mockUserRepository, mockBookingRepository,
-                        mockCommentRepository);
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, Mockito.mock(ItemSearchIndex.class), new ItemLookup(mockItemRepository));
 
         givenItems();
 
@@ -311,8 +390,8 @@ class ItemServiceImplTest {
         BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
         CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
         ItemServiceImpl itemService =
-                new ItemServiceImpl(mockItemRepository, mockUserRepository, mockBookingRepository,
-                        mockCommentRepository);
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, Mockito.mock(ItemSearchIndex.class), new ItemLookup(mockItemRepository));
 
         givenItems();
 
@@ -334,8 +413,8 @@ class ItemServiceImplTest {
         BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
         CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
         ItemServiceImpl itemService =
-                new ItemServiceImpl(mockItemRepository, mockUserRepository, mockBookingRepository,
-                        mockCommentRepository);
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, Mockito.mock(ItemSearchIndex.class), new ItemLookup(mockItemRepository));
 
         givenItems();
 
@@ -358,8 +437,8 @@ class ItemServiceImplTest {
         BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
         CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
         ItemServiceImpl itemService =
-                new ItemServiceImpl(mockItemRepository, mockUserRepository, mockBookingRepository,
-                        mockCommentRepository);
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, Mockito.mock(ItemSearchIndex.class), new ItemLookup(mockItemRepository));
 
         givenItems();
 
@@ -368,12 +447,12 @@ class ItemServiceImplTest {
                 .thenReturn(Optional.of(user));
 
         Mockito
-                .when(mockItemRepository.search(Mockito.anyString()))
+                .when(mockItemRepository.search(Mockito.anyString(), Mockito.any()))
                 .thenReturn(sourceItems);
 
         // when
         Collection<Item> targetItems =
-                itemService.searchItems("поход");
+                itemService.searchItems("поход", null, null, 0, 20);
 
         // then
         assertThat(targetItems, hasSize(sourceItems.size()));
@@ -386,6 +465,91 @@ class ItemServiceImplTest {
         }
     }
 
+    @Test
+    void searchItemsUsesIndexOrder() {
+        // given
+        ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
+        UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
+        BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
+        CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
+        ItemSearchIndex mockSearchIndex = Mockito.mock(ItemSearchIndex.class);
+        ItemServiceImpl itemService =
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, mockSearchIndex, new ItemLookup(mockItemRepository));
+
+        givenItems();
+
+        Mockito
+                .when(mockSearchIndex.isEnabled())
+                .thenReturn(true);
+
+        Mockito
+                .when(mockSearchIndex.search("поход", 0, 20))
+                .thenReturn(List.of(3L, 1L));
+
+        Mockito
+                .when(mockItemRepository.findAllById(List.of(3L, 1L)))
+                .thenReturn(List.of(sourceItems.get(0), sourceItems.get(2)));
+
+        // when
+        Collection<Item> targetItems =
+                itemService.searchItems("поход", null, null, 0, 20);
+
+        // then
+        assertThat(targetItems, contains(sourceItems.get(2), sourceItems.get(0)));
+        Mockito.verify(mockItemRepository, Mockito.never()).search(Mockito.anyString(), Mockito.any());
+    }
+
+    @Test
+    void searchItemsFreeForPeriodFiltersInQuery() {
+        // given
+        ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
+        UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
+        BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
+        CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
+        ItemSearchIndex mockSearchIndex = Mockito.mock(ItemSearchIndex.class);
+        ItemServiceImpl itemService =
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, mockSearchIndex, new ItemLookup(mockItemRepository));
+
+        givenItems();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(2);
+
+        Mockito
+                .when(mockSearchIndex.isEnabled())
+                .thenReturn(true);
+
+        Mockito
+                .when(mockItemRepository.searchFree("поход", start, end, PageRequest.of(0, 20)))
+                .thenReturn(List.of(sourceItems.get(1)));
+
+        // when
+        Collection<Item> targetItems =
+                itemService.searchItems("поход", start, end, 0, 20);
+
+        // then
+        assertThat(targetItems, contains(sourceItems.get(1)));
+        Mockito.verify(mockSearchIndex, Mockito.never()).search(Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @Test
+    void searchItemsFreeForPeriodRequiresBothDates() {
+        // given
+        ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
+        ItemServiceImpl itemService =
+                new ItemServiceImpl(mockItemRepository, new UserLookup(Mockito.mock(UserRepository.class)),
+                        Mockito.mock(BookingRepository.class), Mockito.mock(CommentRepository.class),
+                        Mockito.mock(ItemSearchIndex.class), new ItemLookup(mockItemRepository));
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        // when, then
+        Assertions.assertThrows(ValidationException.class,
+                () -> itemService.searchItems("поход", start, null, 0, 20));
+        Assertions.assertThrows(ValidationException.class,
+                () -> itemService.searchItems("поход", start, start, 0, 20));
+    }
+
     @Test
     void addItemCommentUserIsNotBooker() {
         // given
@@ -394,8 +558,8 @@ class ItemServiceImplTest {
         BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
         CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
         ItemServiceImpl itemService =
-                new ItemServiceImpl(mockItemRepository, mockUserRepository, mockBookingRepository,
-                        mockCommentRepository);
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, Mockito.mock(ItemSearchIndex.class), new ItemLookup(mockItemRepository));
 
         givenItems();
 
@@ -445,8 +609,8 @@ class ItemServiceImplTest {
         BookingRepository mockBookingRepository = Mockito.mock(BookingRepository.class);
         CommentRepository mockCommentRepository = Mockito.mock(CommentRepository.class);
         ItemServiceImpl itemService =
-                new ItemServiceImpl(mockItemRepository, mockUserRepository, mockBookingRepository,
-                        mockCommentRepository);
+                new ItemServiceImpl(mockItemRepository, new UserLookup(mockUserRepository), mockBookingRepository,
+                        mockCommentRepository, Mockito.mock(ItemSearchIndex.class), new ItemLookup(mockItemRepository));
 
         givenItems();
 
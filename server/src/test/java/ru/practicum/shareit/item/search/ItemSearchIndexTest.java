@@ -0,0 +1,167 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.EntityManager;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+class ItemSearchIndexTest {
+
+    private final ItemSearchIndex index = new ItemSearchIndex(
+            Mockito.mock(ItemRepository.class), Mockito.mock(EntityManager.class), true);
+
+    @Test
+    void searchMatchesWordPrefixesInNameAndDescription() {
+        // given
+        index.update(makeItem(1L, "Дрель", "Простая дрель", true));
+        index.update(makeItem(2L, "Отвёртка", "Аккумуляторная, подходит к дрели", true));
+        index.update(makeItem(3L, "Палатка", "Для похода", true));
+
+        // when, then
+        assertThat(index.search("дрел", 0, 10), contains(1L, 2L));
+        assertThat(index.search("ПОХОД", 0, 10), contains(3L));
+        assertThat(index.search("рель", 0, 10), empty());
+    }
+
+    @Test
+    void searchRequiresAllWordsAndRanksNameMatchesFirst() {
+        // given
+        index.update(makeItem(1L, "Набор", "Аккумуляторная дрель и биты", true));
+        index.update(makeItem(2L, "Аккумуляторная дрель", "Без бит", true));
+        index.update(makeItem(3L, "Дрель", "Сетевая", true));
+
+        // when, then
+        assertThat(index.search("дрель аккумуляторная", 0, 10), contains(2L, 1L));
+        assertThat(index.search("дрель", 0, 10), contains(2L, 3L, 1L));
+        assertThat(index.search("дрель", 1, 1), contains(3L));
+    }
+
+    @Test
+    void searchSkipsUnavailableItems() {
+        // given
+        Item item = makeItem(1L, "Дрель", "Простая дрель", true);
+        index.update(item);
+
+        // when
+        item.setAvailable(false);
+        index.update(item);
+
+        // then
+        assertThat(index.search("дрель", 0, 10), empty());
+        assertThat(index.documentCount(), equalTo(1));
+    }
+
+    @Test
+    void updateReplacesOldTermsAndRemoveDropsItem() {
+        // given
+        Item item = makeItem(1L, "Дрель", "Простая дрель", true);
+        index.update(item);
+        long memory = index.estimatedMemoryBytes();
+
+        // when
+        item.setName("Перфоратор");
+        item.setDescription("Мощный");
+        index.update(item);
+
+        // then
+        assertThat(index.search("дрель", 0, 10), empty());
+        assertThat(index.search("перфоратор", 0, 10), contains(1L));
+        assertThat(index.termCount(), equalTo(2));
+
+        // when
+        index.remove(1L);
+
+        // then
+        assertThat(index.search("перфоратор", 0, 10), empty());
+        assertThat(index.documentCount(), equalTo(0));
+        assertThat(index.termCount(), equalTo(0));
+        assertThat(index.estimatedMemoryBytes(), lessThan(memory));
+    }
+
+    @Test
+    void buildLoadsAllItems() {
+        // given
+        ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
+        ItemSearchIndex index = new ItemSearchIndex(mockItemRepository, Mockito.mock(EntityManager.class), true);
+
+        Mockito
+                .when(mockItemRepository.streamAll())
+                .thenReturn(Stream.of(makeItem(1L, "Дрель", "Простая", true),
+                        makeItem(2L, "Палатка", "Для похода", true)));
+
+        // when
+        index.build();
+
+        // then
+        assertThat(index.isEnabled(), is(true));
+        assertThat(index.documentCount(), equalTo(2));
+        assertThat(index.search("палатка", 0, 10), contains(2L));
+    }
+
+    @Test
+    void buildKeepsChangesCommittedWhileStreaming() {
+        // given
+        ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
+        ItemSearchIndex index = new ItemSearchIndex(mockItemRepository, Mockito.mock(EntityManager.class), true);
+
+        // строки 2 и 3 прочитаны из снимка базы до того, как изменения вещей 2 и 3 зафиксированы
+        Mockito
+                .when(mockItemRepository.streamAll())
+                .thenReturn(Stream.of(makeItem(1L, "Дрель", "Простая", true),
+                                makeItem(2L, "Палатка", "Для похода", true),
+                                makeItem(3L, "Лодка", "Надувная", true))
+                        .peek(item -> {
+                            if (item.getId() == 1L) {
+                                index.update(makeItem(2L, "Шатёр", "Для похода", true));
+                                index.remove(3L);
+                            }
+                        }));
+
+        // when
+        index.build();
+
+        // then
+        assertThat(index.documentCount(), equalTo(2));
+        assertThat(index.search("шатёр", 0, 10), contains(2L));
+        assertThat(index.search("палатка", 0, 10), empty());
+        assertThat(index.search("лодка", 0, 10), empty());
+
+        // when
+        index.update(makeItem(1L, "Перфоратор", "Мощный", true));
+
+        // then
+        assertThat(index.search("перфоратор", 0, 10), contains(1L));
+    }
+
+    @Test
+    void disabledIndexIsNotBuilt() {
+        // given
+        ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
+        ItemSearchIndex index = new ItemSearchIndex(mockItemRepository, Mockito.mock(EntityManager.class), false);
+
+        // when
+        index.build();
+        index.update(makeItem(1L, "Дрель", "Простая", true));
+
+        // then
+        assertThat(index.isEnabled(), is(false));
+        assertThat(index.documentCount(), equalTo(0));
+        Mockito.verify(mockItemRepository, Mockito.never()).streamAll();
+    }
+
+    private Item makeItem(long id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setAvailable(available);
+        item.setOwner(1L);
+        return item;
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.pagination;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import ru.practicum.shareit.exception.ValidationException;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CursorTest {
+
+    @Test
+    void encodeAndDecode() {
+        Cursor cursor = new Cursor(LocalDateTime.of(2022, 10, 1, 12, 0, 1, 123_456_000), 42L);
+
+        Cursor decoded = Cursor.decode(cursor.encode());
+
+        assertThat(decoded.getDate()).isEqualTo(cursor.getDate());
+        assertThat(decoded.getId()).isEqualTo(42L);
+        assertThat(cursor.encode()).doesNotContain("=", "+", "/");
+    }
+
+    @Test
+    void decodeInvalidToken() {
+        assertThatThrownBy(() -> Cursor.decode("abc"))
+                .isInstanceOf(ValidationException.class);
+        assertThatThrownBy(() -> Cursor.decode("не курсор"))
+                .isInstanceOf(ValidationException.class);
+    }
+
+    @Test
+    void toResponseSetsHeaderOnlyForFullPage() {
+        LocalDateTime date = LocalDateTime.of(2022, 10, 1, 12, 0);
+
+        ResponseEntity<Collection<Long>> fullPage = Cursor.toResponse(List.of(3L, 2L), 2,
+                id -> new Cursor(date, id));
+        ResponseEntity<Collection<Long>> lastPage = Cursor.toResponse(List.of(1L), 2,
+                id -> new Cursor(date, id));
+
+        assertThat(fullPage.getHeaders().getFirst(Cursor.HEADER)).isEqualTo(new Cursor(date, 2L).encode());
+        assertThat(lastPage.getHeaders().containsKey(Cursor.HEADER)).isFalse();
+        assertThat(lastPage.getBody()).containsExactly(1L);
+    }
+}
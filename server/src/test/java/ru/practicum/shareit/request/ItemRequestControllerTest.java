@@ -6,9 +6,13 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.cache.HttpCacheConfig;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestFullDto;
 
@@ -23,10 +27,13 @@ import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(ItemRequestController.class)
+@Import(HttpCacheConfig.class)
 class ItemRequestControllerTest {
 
     @MockBean
@@ -138,6 +145,26 @@ class ItemRequestControllerTest {
                 .andExpect(jsonPath("$.items[0].id", is(item.getId()), Long.class));
     }
 
+    @Test
+    void findItemByIdIsNotModified() throws Exception {
+        when(service.getItemRequest(anyLong(), anyLong()))
+                .thenReturn(Optional.of(itemRequestFullDto));
+
+        String etag = mvc.perform(get("/requests/{id}", 1)
+                .header("X-Sharer-User-Id", "1")
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(HttpHeaders.ETAG))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/requests/{id}", 1)
+                .header("X-Sharer-User-Id", "1")
+                .header(HttpHeaders.IF_NONE_MATCH, etag)
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
     @Test
     void findItemByIdIsNotFound() throws Exception {
         when(service.getItemRequest(anyLong(), anyLong()))
@@ -150,4 +177,21 @@ class ItemRequestControllerTest {
                 .accept(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllItemRequestsAfterCursor() throws Exception {
+        Cursor cursor = new Cursor(itemRequestFullDto.getCreated().plusDays(1), 10L);
+        when(service.findAllItemRequests(eq(1L), any(Cursor.class), eq(1)))
+                .thenReturn(List.of(itemRequestFullDto));
+
+        mvc.perform(get("/requests/all")
+                .header("X-Sharer-User-Id", "1")
+                .param("size", "1")
+                .param("cursor", cursor.encode())
+                .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(Cursor.HEADER,
+                        new Cursor(itemRequestFullDto.getCreated(), itemRequestFullDto.getId()).encode()));
+    }
+}
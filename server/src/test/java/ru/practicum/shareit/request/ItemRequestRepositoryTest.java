@@ -5,11 +5,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -41,9 +42,32 @@ class ItemRequestRepositoryTest {
     }
 
     @Test
-    void findByRequestorOrderByCreatedDesc() {
-        Page<ItemRequest> foundItemRequests = repository
-                .findByRequestorOrderByCreatedDesc(userId, PageRequest.of(0, 20));
+    void findByRequestorOrderByCreatedDescIdDesc() {
+        Slice<ItemRequest> foundItemRequests = repository
+                .findByRequestorOrderByCreatedDescIdDesc(userId, PageRequest.of(0, 20));
         assertThat(foundItemRequests).hasSize(1);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findNextByRequestor() {
+        ItemRequest sameCreated = new ItemRequest();
+        sameCreated.setRequestor(userId);
+        sameCreated.setCreated(itemRequest.getCreated());
+        sameCreated.setDescription("Весло");
+        em.persist(sameCreated);
+        ItemRequest older = new ItemRequest();
+        older.setRequestor(userId);
+        older.setCreated(itemRequest.getCreated().minusDays(1));
+        older.setDescription("Палатка");
+        em.persist(older);
+
+        Slice<ItemRequest> first = repository.findByRequestorOrderByCreatedDescIdDesc(userId, PageRequest.of(0, 1));
+        assertThat(first.getContent()).containsExactly(sameCreated);
+
+        List<ItemRequest> next = repository.findNextByRequestor(
+                userId, sameCreated.getCreated(), sameCreated.getId(), PageRequest.of(0, 20));
+        assertThat(next).containsExactly(itemRequest, older);
+        assertThat(repository.findNextByRequestorNot(
+                userId, sameCreated.getCreated(), sameCreated.getId(), PageRequest.of(0, 20))).isEmpty();
+    }
+}
@@ -10,9 +10,12 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import ru.practicum.shareit.exception.NotFoundException;
 import ru.practicum.shareit.item.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestFullDto;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.UserLookup;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.UserService;
 
@@ -107,7 +110,7 @@ class ItemRequestServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         ItemRequestServiceImpl itemRequestService =
-                new ItemRequestServiceImpl(mockRepository, mockItemRepository, mockUserRepository);
+                new ItemRequestServiceImpl(mockRepository, mockItemRepository, new UserLookup(mockUserRepository));
 
         User user = makeUser("dimano@mail.ru", "Dima");
         user.setId(1L);
@@ -132,7 +135,7 @@ class ItemRequestServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         ItemRequestServiceImpl itemRequestService =
-                new ItemRequestServiceImpl(mockRepository, mockItemRepository, mockUserRepository);
+                new ItemRequestServiceImpl(mockRepository, mockItemRepository, new UserLookup(mockUserRepository));
 
         User user = makeUser("dimano@mail.ru", "Dima");
         user.setId(1L);
@@ -152,7 +155,7 @@ class ItemRequestServiceImplTest {
         }
 
         Mockito
-                .when(mockRepository.findByRequestorNotOrderByCreatedDesc(1L, PageRequest.of(0, 20)))
+                .when(mockRepository.findByRequestorNotOrderByCreatedDescIdDesc(1L, PageRequest.of(0, 20)))
                 .thenReturn(new PageImpl<>(sourceItemRequests));
 
         // when
@@ -170,6 +173,95 @@ class ItemRequestServiceImplTest {
         }
     }
 
+    @Test
+    void findUserItemRequestsAfterCursor() {
+        // given
+        User user = makeUser("dimano@mail.ru", "Dima");
+        em.persist(user);
+        em.flush();
+
+        LocalDateTime created = LocalDateTime.of(2022, 10, 1, 12, 0, 0);
+        List<ItemRequest> sourceItemRequests = List.of(
+                makeItemRequest(user.getId(), "4-местная байдарка", created),
+                makeItemRequest(user.getId(), "палатка", created),
+                makeItemRequest(user.getId(), "складной столик", created.minusDays(1))
+        );
+        for (ItemRequest sourceItemRequest : sourceItemRequests) {
+            em.persist(sourceItemRequest);
+        }
+        em.flush();
+
+        // when
+        List<ItemRequestFullDto> firstPage = List.copyOf(service.findUserItemRequests(user.getId(), 0, 2));
+        ItemRequestFullDto last = firstPage.get(firstPage.size() - 1);
+        Collection<ItemRequestFullDto> nextPage = service.findUserItemRequests(
+                user.getId(), new Cursor(last.getCreated(), last.getId()), 2);
+
+        // then
+        assertThat(firstPage, contains(
+                hasProperty("description", equalTo("палатка")),
+                hasProperty("description", equalTo("4-местная байдарка"))));
+        assertThat(nextPage, contains(hasProperty("description", equalTo("складной столик"))));
+    }
+
+    @Test
+    void findAllItemRequestsLoadsItemsOnce() {
+        // given
+        ItemRequestRepository mockRepository = Mockito.mock(ItemRequestRepository.class);
+        ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
+        UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
+        ItemRequestServiceImpl itemRequestService =
+                new ItemRequestServiceImpl(mockRepository, mockItemRepository, new UserLookup(mockUserRepository));
+
+        User user = makeUser("dimano@mail.ru", "Dima");
+        user.setId(1L);
+
+        Mockito
+                .when(mockUserRepository.findById(1L))
+                .thenReturn(Optional.of(user));
+
+        List<ItemRequest> sourceItemRequests = List.of(
+                makeItemRequest(2L, "4-местная байдарка", LocalDateTime.now()),
+                makeItemRequest(2L, "палатка", LocalDateTime.now())
+        );
+        long id = 1;
+        for (ItemRequest sourceItemRequest : sourceItemRequests) {
+            sourceItemRequest.setId(id++);
+        }
+
+        Item kayak = makeItem(1L, "байдарка");
+        Item tent = makeItem(2L, "палатка");
+        Item awning = makeItem(2L, "тент");
+
+        Mockito
+                .when(mockRepository.findByRequestorNotOrderByCreatedDescIdDesc(1L, PageRequest.of(0, 20)))
+                .thenReturn(new PageImpl<>(sourceItemRequests));
+
+        Mockito
+                .when(mockItemRepository.findByRequestIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(kayak, tent, awning));
+
+        // when
+        List<ItemRequestFullDto> targetItemRequests =
+                List.copyOf(itemRequestService.findAllItemRequests(user.getId(), 0, 20));
+
+        // then
+        assertThat(targetItemRequests.get(0).getItems(), contains(kayak));
+        assertThat(targetItemRequests.get(1).getItems(), contains(tent, awning));
+        Mockito.verify(mockItemRepository, Mockito.times(1)).findByRequestIdIn(Mockito.any());
+        Mockito.verify(mockItemRepository, Mockito.never()).findByRequestId(Mockito.anyLong());
+    }
+
+    private Item makeItem(long requestId, String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name);
+        item.setAvailable(true);
+        item.setOwner(1L);
+        item.setRequestId(requestId);
+        return item;
+    }
+
     @Test
     void getItemRequestIsOk() {
         // given
@@ -177,7 +269,7 @@ class ItemRequestServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         ItemRequestServiceImpl itemRequestService =
-                new ItemRequestServiceImpl(mockRepository, mockItemRepository, mockUserRepository);
+                new ItemRequestServiceImpl(mockRepository, mockItemRepository, new UserLookup(mockUserRepository));
 
         User user = makeUser("dimano@mail.ru", "Dima");
         user.setId(1L);
@@ -205,7 +297,7 @@ class ItemRequestServiceImplTest {
         ItemRepository mockItemRepository = Mockito.mock(ItemRepository.class);
         UserRepository mockUserRepository = Mockito.mock(UserRepository.class);
         ItemRequestServiceImpl itemRequestService =
-                new ItemRequestServiceImpl(mockRepository, mockItemRepository, mockUserRepository);
+                new ItemRequestServiceImpl(mockRepository, mockItemRepository, new UserLookup(mockUserRepository));
 
         User user = makeUser("dimano@mail.ru", "Dima");
         user.setId(1L);
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.streaming;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeysetBatchesTest {
+    private final List<String> requests = new ArrayList<>();
+
+    private Collection<Long> fetch(long afterId, int size) {
+        requests.add(afterId + ":" + size);
+        return LongStream.rangeClosed(afterId + 1, Math.min(afterId + size, 25))
+                .boxed()
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void batchesContinueAfterLastIdUntilShortBatch() {
+        KeysetBatches<Long> batches = new KeysetBatches<>(this::fetch, Long::longValue, 0, 10, Long.MAX_VALUE);
+
+        List<Integer> sizes = new ArrayList<>();
+        batches.forEach(batch -> sizes.add(batch.size()));
+
+        assertThat(sizes).containsExactly(10, 10, 5);
+        assertThat(requests).containsExactly("0:10", "10:10", "20:10");
+    }
+
+    @Test
+    void elementsStopAtLimitAndLastBatchIsShortened() {
+        KeysetBatches<Long> batches = new KeysetBatches<>(this::fetch, Long::longValue, 3, 10, 12);
+
+        assertThat(batches.elements()).containsExactlyElementsOf(
+                LongStream.rangeClosed(4, 15).boxed().collect(Collectors.toList()));
+        assertThat(requests).containsExactly("3:10", "13:2");
+    }
+
+    @Test
+    void eachIterationStartsFromFirstBatch() {
+        KeysetBatches<Long> batches = new KeysetBatches<>(this::fetch, Long::longValue, 20, 10, Long.MAX_VALUE);
+
+        assertThat(batches.elements()).hasSize(5);
+        assertThat(batches.elements()).hasSize(5);
+        assertThat(requests).containsExactly("20:10", "20:10");
+    }
+}
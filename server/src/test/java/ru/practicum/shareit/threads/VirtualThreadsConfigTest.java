@@ -0,0 +1,34 @@
+package ru.practicum.shareit.threads;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.util.concurrent.ExecutorService;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsConfigTest {
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(VirtualThreadsConfig.class);
+
+    @Test
+    void virtualThreadsAreOffByDefault() {
+        contextRunner.run(context -> assertThat(context).doesNotHaveBean(ExecutorService.class));
+    }
+
+    @Test
+    void enabledVirtualThreadsFailStartupBeforeJava21() {
+        assumeTrue(Runtime.version().feature() < 21);
+        contextRunner.withPropertyValues("shareit.virtual-threads.enabled=true")
+                .run(context -> assertThat(context).getFailure().hasStackTraceContaining("требуется Java 21"));
+    }
+
+    @Test
+    void enabledVirtualThreadsReplaceTaskExecutor() {
+        assumeTrue(Runtime.version().feature() >= 21);
+        contextRunner.withPropertyValues("shareit.virtual-threads.enabled=true")
+                .run(context -> assertThat(context).hasSingleBean(ExecutorService.class)
+                        .hasBean("applicationTaskExecutor"));
+    }
+}
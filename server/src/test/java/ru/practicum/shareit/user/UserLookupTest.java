@@ -0,0 +1,59 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.RequiredArgsConstructor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import ru.practicum.shareit.cache.CacheConfig;
+import ru.practicum.shareit.cache.TwoLevelCache;
+import ru.practicum.shareit.exception.NotFoundException;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+class UserLookupTest {
+
+    private final UserLookup userLookup;
+    private final UserService userService;
+    private final CacheManager cacheManager;
+
+    @Test
+    void getUserIsCachedUntilUpdateAndDelete() {
+        // given
+        User user = new User();
+        user.setEmail("lookup@mail.ru");
+        user.setName("Dima");
+        long userId = userService.saveUser(user).getId();
+
+        // when
+        User first = userLookup.getUser(userId);
+        CacheStats before = stats();
+        User second = userLookup.getUser(userId);
+
+        // then
+        assertThat(second, sameInstance(first));
+        assertThat(stats().minus(before).hitCount(), equalTo(1L));
+
+        User update = new User();
+        update.setId(userId);
+        update.setName("DN");
+        userService.updateUser(update);
+        assertThat(userLookup.getUser(userId).getName(), equalTo("DN"));
+
+        userService.deleteUser(userId);
+        Assertions.assertThrows(NotFoundException.class, () -> userLookup.getUser(userId));
+    }
+
+    private CacheStats stats() {
+        TransactionAwareCacheDecorator cache =
+                (TransactionAwareCacheDecorator) cacheManager.getCache(CacheConfig.USERS);
+        return ((TwoLevelCache) cache.getTargetCache()).getNearCache().stats();
+    }
+}
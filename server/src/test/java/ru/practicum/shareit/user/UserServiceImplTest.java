@@ -10,12 +10,10 @@ import ru.practicum.shareit.exception.ConflictException;
 
 import javax.persistence.EntityManager;
 import javax.transaction.Transactional;
-import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.CoreMatchers.allOf;
-import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
 
@@ -30,7 +28,7 @@ class UserServiceImplTest {
     private final UserService service;
 
     @Test
-    void getAllUsers() {
+    void findUsersReturnsUsersAfterIdInIdOrder() {
         // given
         List<User> sourceUsers = List.of(
                 makeUser("ivan@mail.ru", "Ivan"),
@@ -44,17 +42,18 @@ class UserServiceImplTest {
         em.flush();
 
         // when
-        Collection<User> targetUsers = service.getAllUsers();
+        List<User> firstBatch = service.findUsers(0, 2);
+        List<User> secondBatch = service.findUsers(firstBatch.get(1).getId(), 2);
 
         // then
-        assertThat(targetUsers, hasSize(sourceUsers.size()));
-        for (User sourceUser : sourceUsers) {
-            assertThat(targetUsers, hasItem(allOf(
-                    hasProperty("id", notNullValue()),
-                    hasProperty("name", equalTo(sourceUser.getName())),
-                    hasProperty("email", equalTo(sourceUser.getEmail()))
-            )));
-        }
+        assertThat(firstBatch, contains(
+                allOf(hasProperty("id", equalTo(sourceUsers.get(0).getId())),
+                        hasProperty("email", equalTo("ivan@mail.ru"))),
+                allOf(hasProperty("id", equalTo(sourceUsers.get(1).getId())),
+                        hasProperty("email", equalTo("petr@mail.ru")))));
+        assertThat(secondBatch, contains(
+                allOf(hasProperty("id", equalTo(sourceUsers.get(2).getId())),
+                        hasProperty("name", equalTo("Vasilii")))));
     }
 
     private User makeUser(String email, String name) {
@@ -68,7 +67,7 @@ class UserServiceImplTest {
     void saveUser() {
         // given
         UserRepository mockRepository = Mockito.mock(UserRepository.class);
-        UserServiceImpl userService = new UserServiceImpl(mockRepository);
+        UserServiceImpl userService = new UserServiceImpl(mockRepository, new UserLookup(mockRepository));
 
         User saveUser = makeUser("dimano@mail.ru", "Dima");
         saveUser.setId(1L);
@@ -88,7 +87,7 @@ class UserServiceImplTest {
     void updateUserMailAlreadyExists() {
         // given
         UserRepository mockRepository = Mockito.mock(UserRepository.class);
-        UserServiceImpl userService = new UserServiceImpl(mockRepository);
+        UserServiceImpl userService = new UserServiceImpl(mockRepository, new UserLookup(mockRepository));
 
         User getUser = makeUser("dimano@mail.ru", "Dima");
         getUser.setId(1L);
@@ -110,7 +109,7 @@ class UserServiceImplTest {
     void updateUserIsOk() {
         // given
         UserRepository mockRepository = Mockito.mock(UserRepository.class);
-        UserServiceImpl userService = new UserServiceImpl(mockRepository);
+        UserServiceImpl userService = new UserServiceImpl(mockRepository, new UserLookup(mockRepository));
 
         User getUser = makeUser("dimano@mail.ru", "Dima");
         getUser.setId(1L);
@@ -138,7 +137,7 @@ class UserServiceImplTest {
     @Test
     void deleteUserIsOk() {
         UserRepository mockRepository = Mockito.mock(UserRepository.class);
-        UserServiceImpl userService = new UserServiceImpl(mockRepository);
+        UserServiceImpl userService = new UserServiceImpl(mockRepository, new UserLookup(mockRepository));
 
         User getUser = makeUser("dimano@mail.ru", "Dima");
         getUser.setId(1L);
@@ -153,7 +152,7 @@ class UserServiceImplTest {
     @Test
     void deleteUserIsNotFound() {
         UserRepository mockRepository = Mockito.mock(UserRepository.class);
-        UserServiceImpl userService = new UserServiceImpl(mockRepository);
+        UserServiceImpl userService = new UserServiceImpl(mockRepository, new UserLookup(mockRepository));
 
         User getUser = makeUser("dimano@mail.ru", "Dima");
         getUser.setId(1L);
@@ -168,7 +167,7 @@ class UserServiceImplTest {
     @Test
     void getUser() {
         UserRepository mockRepository = Mockito.mock(UserRepository.class);
-        UserServiceImpl userService = new UserServiceImpl(mockRepository);
+        UserServiceImpl userService = new UserServiceImpl(mockRepository, new UserLookup(mockRepository));
 
         User getUser = makeUser("dimano@mail.ru", "Dima");
         getUser.setId(1L);